@@ -0,0 +1,200 @@
+package com.github.tibolte.agendacalendarview;
+
+import com.github.tibolte.agendacalendarview.models.BaseCalendarEvent;
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.models.DayItem;
+import com.github.tibolte.agendacalendarview.models.EventOccurrence;
+import com.github.tibolte.agendacalendarview.models.WeekItem;
+
+import android.test.AndroidTestCase;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Calendars written to a snapshot and read back.
+ */
+public class CalendarSnapshotTest extends AndroidTestCase {
+
+    private static final long VERSION = 42;
+    private static final int NO_EVENT_COLOR = 0xff336699;
+
+    private File mFile;
+    private Calendar mMinDate;
+    private Calendar mMaxDate;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        mFile = File.createTempFile("calendar", ".snapshot");
+        mMinDate = Calendar.getInstance();
+        mMinDate.clear();
+        mMinDate.set(2026, Calendar.JANUARY, 1);
+        mMaxDate = (Calendar) mMinDate.clone();
+        mMaxDate.add(Calendar.MONTH, 2);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mFile.delete();
+        super.tearDown();
+    }
+
+    public void testRoundTripRestoresTheInstances() throws Exception {
+        CalendarManager saved = build(createEvents());
+        saved.saveSnapshot(mFile, VERSION);
+
+        CalendarManager restored = new CalendarManager(getContext());
+        assertTrue(restored.loadSnapshot(mFile, VERSION, mMinDate, mMaxDate, Locale.US, createNoEvent()));
+
+        List<CalendarEvent> expected = saved.getEvents();
+        List<CalendarEvent> actual = restored.getEvents();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            CalendarEvent e = expected.get(i);
+            CalendarEvent a = actual.get(i);
+            assertEquals(e.getInstanceEpochDay(), a.getInstanceEpochDay());
+            assertEquals(e.isPlaceholder(), a.isPlaceholder());
+            assertEquals(e.getId(), a.getId());
+            assertEquals(e.getTitle(), a.getTitle());
+            assertEquals(e.getDescription(), a.getDescription());
+            assertEquals(e.getLocation(), a.getLocation());
+            assertEquals(e.getColor(), a.getColor());
+            assertEquals(e.getTextColor(), a.getTextColor());
+            assertEquals(e.isAllDay(), a.isAllDay());
+            assertEquals(e.getShowBadge(), a.getShowBadge());
+            if (!e.isPlaceholder()) {
+                assertEquals(e.getStartTime().getTimeInMillis(), a.getStartTime().getTimeInMillis());
+                assertEquals(e.getEndTime().getTimeInMillis(), a.getEndTime().getTimeInMillis());
+                assertEquals(((EventOccurrence) e).getDayOffset(), ((EventOccurrence) a).getDayOffset());
+            }
+        }
+    }
+
+    public void testRoundTripRestoresTheRecurrenceRules() throws Exception {
+        build(createEvents()).saveSnapshot(mFile, VERSION);
+
+        CalendarManager restored = new CalendarManager(getContext());
+        assertTrue(restored.loadSnapshot(mFile, VERSION, mMinDate, mMaxDate, Locale.US, createNoEvent()));
+
+        List<CalendarEvent> sources = restored.getSourceEvents();
+        assertEquals(3, sources.size());
+        assertNull(sources.get(0).getRecurrenceRule());
+        assertEquals("PT1H", ((BaseCalendarEvent) sources.get(2)).getDuration());
+        assertEquals(createEvents().get(2).getRecurrenceRule().getWeekDays(), sources.get(2).getRecurrenceRule().getWeekDays());
+        assertEquals(1, sources.get(2).getRecurrenceRule().getExceptionDays().length);
+    }
+
+    public void testPlaceholdersAreMadeFromTheNoEvent() throws Exception {
+        build(createEvents()).saveSnapshot(mFile, VERSION);
+
+        CalendarManager restored = new CalendarManager(getContext());
+        assertTrue(restored.loadSnapshot(mFile, VERSION, mMinDate, mMaxDate, Locale.US, createNoEvent()));
+
+        boolean placeholderFound = false;
+        for (CalendarEvent instance : restored.getEvents()) {
+            if (instance.isPlaceholder()) {
+                assertEquals(NO_EVENT_COLOR, instance.getColor());
+                placeholderFound = true;
+            }
+        }
+        assertTrue(placeholderFound);
+    }
+
+    public void testSnapshotOfOtherEventsIsNotRestored() throws Exception {
+        build(createEvents()).saveSnapshot(mFile, VERSION);
+
+        assertFalse(new CalendarManager(getContext()).loadSnapshot(mFile, VERSION + 1, mMinDate, mMaxDate, Locale.US, null));
+    }
+
+    public void testSnapshotOfOtherDatesIsNotRestored() throws Exception {
+        build(createEvents()).saveSnapshot(mFile, VERSION);
+        Calendar maxDate = (Calendar) mMaxDate.clone();
+        maxDate.add(Calendar.DATE, 1);
+
+        assertFalse(new CalendarManager(getContext()).loadSnapshot(mFile, VERSION, mMinDate, maxDate, Locale.US, null));
+        assertFalse(new CalendarManager(getContext()).loadSnapshot(mFile, VERSION, mMinDate, mMaxDate, Locale.FRANCE, null));
+    }
+
+    public void testMissingSnapshotIsNotRestored() throws Exception {
+        mFile.delete();
+
+        assertFalse(new CalendarManager(getContext()).loadSnapshot(mFile, VERSION, mMinDate, mMaxDate, Locale.US, null));
+    }
+
+    public void testTruncatedSnapshotIsNotRestored() throws Exception {
+        build(createEvents()).saveSnapshot(mFile, VERSION);
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.setLength(file.length() / 2);
+        } finally {
+            file.close();
+        }
+
+        assertFalse(new CalendarManager(getContext()).loadSnapshot(mFile, VERSION, mMinDate, mMaxDate, Locale.US, null));
+    }
+
+    public void testCorruptedCountIsNotRestored() throws Exception {
+        build(createEvents()).saveSnapshot(mFile, VERSION);
+        // the count of source events follows the magic, format, version, days, locale and time zone
+        Charset utf8 = Charset.forName("UTF-8");
+        long countOffset = 4 + 4 + 8 + 4 + 4
+                + 4 + Locale.US.toString().getBytes(utf8).length
+                + 4 + TimeZone.getDefault().getID().getBytes(utf8).length;
+        for (int count : new int[]{-1, Integer.MAX_VALUE}) {
+            RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+            try {
+                file.seek(countOffset);
+                file.writeInt(count);
+            } finally {
+                file.close();
+            }
+
+            assertFalse(new CalendarManager(getContext()).loadSnapshot(mFile, VERSION, mMinDate, mMaxDate, Locale.US, null));
+        }
+    }
+
+    // region Private methods
+
+    private CalendarManager build(List<CalendarEvent> events) {
+        CalendarManager calendarManager = new CalendarManager(getContext());
+        calendarManager.buildCal(mMinDate, mMaxDate, Locale.US, new DayItem(), new WeekItem());
+        calendarManager.loadEvents(events, createNoEvent());
+        return calendarManager;
+    }
+
+    private static CalendarEvent createNoEvent() {
+        BaseCalendarEvent noEvent = new BaseCalendarEvent();
+        noEvent.setColor(NO_EVENT_COLOR);
+        return noEvent;
+    }
+
+    private static List<CalendarEvent> createEvents() {
+        List<CalendarEvent> events = new ArrayList<>();
+        Calendar start = Calendar.getInstance();
+        start.clear();
+        start.set(2026, Calendar.JANUARY, 10, 9, 0);
+        Calendar end = (Calendar) start.clone();
+        end.add(Calendar.DATE, 2);
+        events.add(new BaseCalendarEvent("Trip", "Three days", "Dalvík", 0xffff0000, 0xff000000, start, end, false, 1, true));
+
+        Calendar dayStart = (Calendar) start.clone();
+        dayStart.add(Calendar.DATE, 10);
+        Calendar dayEnd = (Calendar) dayStart.clone();
+        events.add(new BaseCalendarEvent("Holiday", null, "", 0xff00ff00, 0xff000000, dayStart, dayEnd, true, 2, false));
+
+        Calendar weekly = (Calendar) start.clone();
+        weekly.set(Calendar.DAY_OF_MONTH, 5);
+        events.add(new BaseCalendarEvent(3, 0xff0000ff, 0xffffffff, "Class", "", "Room 1", weekly.getTimeInMillis(), 0, 0,
+                "PT1H", "FREQ=WEEKLY;BYDAY=MO,TH", "20260115"));
+        return events;
+    }
+
+    // endregion
+}
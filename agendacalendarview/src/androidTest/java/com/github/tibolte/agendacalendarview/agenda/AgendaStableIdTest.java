@@ -0,0 +1,51 @@
+package com.github.tibolte.agendacalendarview.agenda;
+
+import com.github.tibolte.agendacalendarview.models.BaseCalendarEvent;
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Ids of the agenda rows, which must be unique for the RecyclerView.
+ */
+public class AgendaStableIdTest extends TestCase {
+
+    public void testEventsSharingAnIdOnADayHaveDistinctIds() {
+        Calendar day = Calendar.getInstance();
+        List<CalendarEvent> events = Arrays.<CalendarEvent>asList(createEvent(0, day), createEvent(0, day), createEvent(0, day));
+
+        assertTrue(AgendaAdapter.getStableId(events, 0) != AgendaAdapter.getStableId(events, 1));
+        assertTrue(AgendaAdapter.getStableId(events, 1) != AgendaAdapter.getStableId(events, 2));
+        assertTrue(AgendaAdapter.getStableId(events, 0) != AgendaAdapter.getStableId(events, 2));
+    }
+
+    public void testEventsSharingAnIdOnADayAreDistinctItems() {
+        Calendar day = Calendar.getInstance();
+        List<CalendarEvent> oldEvents = Arrays.<CalendarEvent>asList(createEvent(0, day), createEvent(0, day));
+        List<CalendarEvent> newEvents = new ArrayList<>(oldEvents);
+
+        assertTrue(AgendaUpdate.sameItem(oldEvents, 0, newEvents, 0));
+        assertTrue(AgendaUpdate.sameItem(oldEvents, 1, newEvents, 1));
+        assertFalse(AgendaUpdate.sameItem(oldEvents, 0, newEvents, 1));
+    }
+
+    public void testIdOfAnEventOnADayDoesNotDependOnOtherEvents() {
+        Calendar day = Calendar.getInstance();
+        List<CalendarEvent> alone = Arrays.<CalendarEvent>asList(createEvent(1, day));
+        List<CalendarEvent> withOthers = Arrays.<CalendarEvent>asList(createEvent(2, day), createEvent(1, day));
+
+        assertEquals(AgendaAdapter.getStableId(alone, 0), AgendaAdapter.getStableId(withOthers, 1));
+    }
+
+    private static CalendarEvent createEvent(long id, Calendar day) {
+        BaseCalendarEvent event = new BaseCalendarEvent();
+        event.setId(id);
+        event.setInstanceDay(day);
+        return event;
+    }
+}
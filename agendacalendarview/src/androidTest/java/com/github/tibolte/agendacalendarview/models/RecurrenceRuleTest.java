@@ -0,0 +1,180 @@
+package com.github.tibolte.agendacalendarview.models;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Parsing of the recurrence rules and days of their occurrences.
+ */
+public class RecurrenceRuleTest extends TestCase {
+
+    public void testDailyInterval() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;INTERVAL=3", null);
+        int start = day(2021, Calendar.JANUARY, 1);
+
+        assertEquals(RecurrenceRule.DAILY, rule.getFrequency());
+        assertEquals(3, rule.getInterval());
+        assertEquals(days(start, start + 3, start + 6), occurrences(rule, start, start + 8));
+    }
+
+    public void testDailyCount() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;COUNT=3", null);
+        int start = day(2021, Calendar.JANUARY, 1);
+
+        assertEquals(days(start, start + 1, start + 2), occurrences(rule, start, start + 10));
+        assertEquals(start + 2, rule.getLastStartBound(start));
+    }
+
+    public void testUntilIsInclusive() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;UNTIL=20210110T120000Z", null);
+        int start = day(2021, Calendar.JANUARY, 1);
+        int until = day(2021, Calendar.JANUARY, 10);
+
+        assertEquals(until, rule.getUntilDay());
+        assertTrue(rule.occursOn(start, until));
+        assertFalse(rule.occursOn(start, until + 1));
+        assertEquals(until, rule.getLastStartBound(start));
+    }
+
+    public void testNoOccurrenceBeforeStart() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY", null);
+        int start = day(2021, Calendar.JANUARY, 1);
+
+        assertFalse(rule.occursOn(start, start - 1));
+        assertEquals(RecurrenceRule.NO_END, rule.getLastStartBound(start));
+    }
+
+    public void testWeeklyOnTheDayOfTheStart() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;COUNT=3", null);
+        int start = day(2021, Calendar.JANUARY, 6);
+
+        assertEquals(days(start, start + 7, start + 14), occurrences(rule, start, start + 30));
+    }
+
+    public void testWeeklyByDay() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,WE", null);
+        int monday = day(2021, Calendar.JANUARY, 4);
+
+        assertEquals(days(monday, monday + 2, monday + 7, monday + 9), occurrences(rule, monday, monday + 13));
+    }
+
+    /**
+     * Examples of RFC 2445, the week start changes the weeks the interval skips.
+     */
+    public void testWeeklyIntervalDependsOnWeekStart() {
+        int start = day(1997, Calendar.AUGUST, 5);
+        RecurrenceRule monday = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;COUNT=4;BYDAY=TU,SU;WKST=MO", null);
+        RecurrenceRule sunday = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;COUNT=4;BYDAY=TU,SU;WKST=SU", null);
+
+        assertEquals(Calendar.SUNDAY, sunday.getWeekStart());
+        assertEquals(days(start, day(1997, Calendar.AUGUST, 10), day(1997, Calendar.AUGUST, 19), day(1997, Calendar.AUGUST, 24)),
+                occurrences(monday, start, start + 60));
+        assertEquals(days(start, day(1997, Calendar.AUGUST, 17), day(1997, Calendar.AUGUST, 19), day(1997, Calendar.AUGUST, 31)),
+                occurrences(sunday, start, start + 60));
+        assertTrue(monday.getLastStartBound(start) >= day(1997, Calendar.AUGUST, 24));
+        assertTrue(sunday.getLastStartBound(start) >= day(1997, Calendar.AUGUST, 31));
+    }
+
+    public void testExceptionDaysAreCountedButSkipped() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=DAILY;COUNT=4", "20210102,20210104T090000Z");
+        int start = day(2021, Calendar.JANUARY, 1);
+
+        assertEquals(days(start, start + 2), occurrences(rule, start, start + 10));
+    }
+
+    public void testMonthlyInterval() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;INTERVAL=2;COUNT=3", null);
+        int start = day(2021, Calendar.JANUARY, 15);
+
+        assertEquals(days(start, day(2021, Calendar.MARCH, 15), day(2021, Calendar.MAY, 15)),
+                occurrences(rule, start, rule.getLastStartBound(start)));
+    }
+
+    public void testMonthlySkipsShortMonths() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;COUNT=3", null);
+        int start = day(2021, Calendar.JANUARY, 31);
+
+        assertFalse(rule.occursOn(start, day(2021, Calendar.FEBRUARY, 28)));
+        assertEquals(days(start, day(2021, Calendar.MARCH, 31), day(2021, Calendar.MAY, 31)),
+                occurrences(rule, start, rule.getLastStartBound(start)));
+    }
+
+    public void testMonthlyOnLeapDay() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY;INTERVAL=12;COUNT=3", null);
+        int start = day(2096, Calendar.FEBRUARY, 29);
+
+        // 2100 is not a leap year
+        assertEquals(days(start, day(2104, Calendar.FEBRUARY, 29), day(2108, Calendar.FEBRUARY, 29)),
+                occurrences(rule, start, rule.getLastStartBound(start)));
+    }
+
+    public void testMonthlyAcrossYears() {
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=MONTHLY", null);
+        int start = day(2020, Calendar.DECEMBER, 30);
+
+        assertTrue(rule.occursOn(start, day(2021, Calendar.JANUARY, 30)));
+        assertFalse(rule.occursOn(start, day(2021, Calendar.FEBRUARY, 28)));
+        assertTrue(rule.occursOn(start, day(2024, Calendar.MARCH, 30)));
+        assertFalse(rule.occursOn(start, day(1969, Calendar.DECEMBER, 30)));
+    }
+
+    public void testParseIsCaseInsensitive() {
+        RecurrenceRule rule = RecurrenceRule.parse("freq=weekly; byday=su,sa ;interval=2", null);
+
+        assertEquals(RecurrenceRule.WEEKLY, rule.getFrequency());
+        assertEquals(2, rule.getInterval());
+        assertEquals(1 << Calendar.SUNDAY | 1 << Calendar.SATURDAY, rule.getWeekDays());
+        assertEquals(Calendar.MONDAY, rule.getWeekStart());
+    }
+
+    public void testParseRejectsMalformedRules() {
+        assertMalformed(null);
+        assertMalformed("INTERVAL=2");
+        assertMalformed("FREQ=YEARLY");
+        assertMalformed("FREQ=DAILY;BYDAY=MO");
+        assertMalformed("FREQ=WEEKLY;BYDAY=XX");
+        assertMalformed("FREQ=DAILY;INTERVAL=0");
+        assertMalformed("FREQ=DAILY;BYMONTH=1");
+        assertMalformed("FREQ=DAILY;COUNT");
+        assertMalformed("FREQ=DAILY;UNTIL=2021");
+    }
+
+    // region Private methods
+
+    private static void assertMalformed(String rrule) {
+        try {
+            RecurrenceRule.parse(rrule, null);
+            fail("Parsed " + rrule);
+        } catch (IllegalArgumentException e) {
+            // expected, NumberFormatException included
+        }
+    }
+
+    private static List<Integer> occurrences(RecurrenceRule rule, int startDay, int lastDay) {
+        List<Integer> days = new ArrayList<>();
+        for (int day = startDay; day <= lastDay; day++) {
+            if (rule.occursOn(startDay, day)) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    private static List<Integer> days(Integer... days) {
+        return Arrays.asList(days);
+    }
+
+    private static int day(int year, int month, int dayOfMonth) {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(year, month, dayOfMonth);
+        return (int) (cal.getTimeInMillis() / (24 * 60 * 60 * 1000L));
+    }
+
+    // endregion
+}
@@ -0,0 +1,51 @@
+package com.github.tibolte.agendacalendarview.utils;
+
+import junit.framework.TestCase;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the RFC 2445 durations.
+ */
+public class DateHelperTest extends TestCase {
+
+    public void testParseTimeDuration() {
+        assertEquals(TimeUnit.MINUTES.toMillis(90), DateHelper.parseDuration("PT1H30M"));
+        assertEquals(TimeUnit.SECONDS.toMillis(3600), DateHelper.parseDuration("PT3600S"));
+    }
+
+    public void testParseDayAndWeekDuration() {
+        assertEquals(TimeUnit.DAYS.toMillis(1), DateHelper.parseDuration("P1D"));
+        assertEquals(TimeUnit.DAYS.toMillis(14), DateHelper.parseDuration("P2W"));
+        assertEquals(TimeUnit.DAYS.toMillis(1) + TimeUnit.HOURS.toMillis(2) + TimeUnit.SECONDS.toMillis(5),
+                DateHelper.parseDuration("P1DT2H5S"));
+    }
+
+    public void testParseSignedDuration() {
+        assertEquals(-TimeUnit.MINUTES.toMillis(15), DateHelper.parseDuration("-PT15M"));
+        assertEquals(TimeUnit.DAYS.toMillis(1), DateHelper.parseDuration("+P1D"));
+    }
+
+    public void testParseIsCaseInsensitive() {
+        assertEquals(TimeUnit.HOURS.toMillis(1), DateHelper.parseDuration(" pt1h "));
+    }
+
+    public void testParseRejectsMalformedDurations() {
+        assertMalformed("1H");
+        assertMalformed("P1H");
+        assertMalformed("PT1D");
+        assertMalformed("P1");
+        assertMalformed("PTH");
+        assertMalformed("P1Y");
+        assertMalformed("-");
+    }
+
+    private static void assertMalformed(String duration) {
+        try {
+            DateHelper.parseDuration(duration);
+            fail("Parsed " + duration);
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
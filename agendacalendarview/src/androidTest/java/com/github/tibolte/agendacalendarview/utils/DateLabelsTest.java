@@ -0,0 +1,102 @@
+package com.github.tibolte.agendacalendarview.utils;
+
+import android.test.AndroidTestCase;
+
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Labels cached by locale and dates formatted without their year.
+ */
+public class DateLabelsTest extends AndroidTestCase {
+
+    private static final Locale[] LOCALES = {
+            Locale.US, Locale.UK, Locale.FRANCE, Locale.GERMANY, Locale.ITALY, Locale.JAPAN,
+            Locale.KOREA, Locale.CHINA, new Locale("pt", "BR"), new Locale("ru", "RU"),
+            new Locale("pl", "PL"), new Locale("nl", "NL"), new Locale("hu", "HU")
+    };
+
+    public void testYearLessDatesHaveNoYear() {
+        int epochDay = day(2021, Calendar.JANUARY, 15);
+        for (Locale locale : LOCALES) {
+            String date = DateLabels.getYearLessDate(epochDay, locale);
+            assertFalse(locale + ": " + date, date.contains("2021"));
+            assertFalse(locale + ": " + date, date.endsWith("21"));
+            assertTrue(locale + ": " + date, date.contains("15"));
+        }
+    }
+
+    public void testYearLessDatesAreUpperCaseWithoutTrailingPunctuation() {
+        assertEquals("FRIDAY, JANUARY 15", DateLabels.getYearLessDate(day(2021, Calendar.JANUARY, 15), Locale.US));
+        for (Locale locale : LOCALES) {
+            String date = DateLabels.getYearLessDate(day(2021, Calendar.MARCH, 3), locale);
+            assertEquals(locale + ": " + date, date.toUpperCase(locale), date);
+            assertFalse(locale + ": " + date, date.endsWith(","));
+            assertFalse(locale + ": " + date, date.endsWith(" "));
+        }
+    }
+
+    public void testYearLessDatesDontDependOnTheTimeZone() {
+        int epochDay = day(2021, Calendar.JANUARY, 15);
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Pacific/Kiritimati"));
+            String east = DateLabels.getYearLessDate(epochDay, Locale.GERMANY);
+            TimeZone.setDefault(TimeZone.getTimeZone("Pacific/Pago_Pago"));
+            assertEquals(east, DateLabels.getYearLessDate(epochDay, Locale.GERMANY));
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+
+    public void testYearLessDatesAreCachedPerLocale() {
+        int epochDay = day(2021, Calendar.JANUARY, 15);
+        String date = DateLabels.getYearLessDate(epochDay, Locale.FRANCE);
+
+        assertSame(date, DateLabels.getYearLessDate(epochDay, Locale.FRANCE));
+        assertSame(date, DateLabels.getInstance(getContext(), Locale.FRANCE).getYearLessDate(epochDay));
+        assertFalse(date.equals(DateLabels.getYearLessDate(epochDay, Locale.US)));
+    }
+
+    public void testInstancesAreSharedPerLocale() {
+        DateLabels us = DateLabels.getInstance(getContext(), Locale.US);
+
+        assertSame(us, DateLabels.getInstance(getContext(), Locale.US));
+        assertEquals(Locale.US, us.getLocale());
+        assertNotSame(us, DateLabels.getInstance(getContext(), Locale.UK));
+    }
+
+    public void testLeastRecentlyUsedLocaleIsDropped() {
+        DateLabels us = DateLabels.getInstance(getContext(), Locale.US);
+        DateLabels.getInstance(getContext(), Locale.FRANCE);
+        DateLabels.getInstance(getContext(), Locale.GERMANY);
+        DateLabels.getInstance(getContext(), Locale.ITALY);
+        // read again, so it is the most recently used
+        assertSame(us, DateLabels.getInstance(getContext(), Locale.US));
+        DateLabels.getInstance(getContext(), Locale.JAPAN);
+        assertSame(us, DateLabels.getInstance(getContext(), Locale.US));
+
+        for (Locale locale : new Locale[]{Locale.KOREA, Locale.CHINA, Locale.UK, Locale.FRANCE}) {
+            DateLabels.getInstance(getContext(), locale);
+        }
+        assertNotSame(us, DateLabels.getInstance(getContext(), Locale.US));
+    }
+
+    public void testMonthLabels() {
+        DateLabels dateLabels = DateLabels.getInstance(getContext(), Locale.US);
+        String label = dateLabels.getMonthLabel(2021, Calendar.MARCH, false);
+
+        assertEquals(label.toUpperCase(Locale.US), label);
+        assertEquals(label + " 2021", dateLabels.getMonthLabel(2021, Calendar.MARCH, true));
+        assertSame(dateLabels.getMonthLabel(2021, Calendar.MARCH, true), dateLabels.getMonthLabel(2021, Calendar.MARCH, true));
+        assertEquals(label + " 2022", dateLabels.getMonthLabel(2022, Calendar.MARCH, true));
+    }
+
+    private static int day(int year, int month, int dayOfMonth) {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.clear();
+        cal.set(year, month, dayOfMonth);
+        return DateHelper.toEpochDay(cal.getTimeInMillis(), TimeZone.getTimeZone("UTC"));
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.tibolte.agendacalendarview.utils;
+
+import com.github.tibolte.agendacalendarview.models.BaseCalendarEvent;
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Bucketing of the events by local day.
+ */
+public class DayEventIndexTest extends TestCase {
+
+    private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("America/New_York");
+
+    public void testSingleDayEvent() {
+        CalendarEvent event = event(time(2021, Calendar.JANUARY, 5, 10), time(2021, Calendar.JANUARY, 5, 11), false);
+        int day = day(2021, Calendar.JANUARY, 5);
+        DayEventIndex index = index(day - 3, day + 3, event);
+
+        assertEquals(0, index.getEventCount(day - 1));
+        assertEquals(1, index.getEventCount(day));
+        assertEquals(0, index.getEventCount(day + 1));
+        assertSame(event, index.getEvent(day, 0));
+        assertEquals(day, index.getStartDay(day, 0));
+    }
+
+    public void testMultiDayEventCoversEachDay() {
+        CalendarEvent event = event(time(2021, Calendar.JANUARY, 5, 9), time(2021, Calendar.JANUARY, 7, 18), false);
+        int start = day(2021, Calendar.JANUARY, 5);
+        DayEventIndex index = index(start - 3, start + 6, event);
+
+        assertEquals(0, index.getEventCount(start - 1));
+        for (int day = start; day <= start + 2; day++) {
+            assertEquals(1, index.getEventCount(day));
+            assertSame(event, index.getEvent(day, 0));
+            assertEquals(start, index.getStartDay(day, 0));
+        }
+        assertEquals(0, index.getEventCount(start + 3));
+    }
+
+    public void testEventEndingAtMidnightDoesNotCoverItsEndDay() {
+        CalendarEvent event = event(time(2021, Calendar.JANUARY, 5, 9), time(2021, Calendar.JANUARY, 7, 0), false);
+        int start = day(2021, Calendar.JANUARY, 5);
+        DayEventIndex index = index(start, start + 6, event);
+
+        assertEquals(1, index.getEventCount(start));
+        assertEquals(1, index.getEventCount(start + 1));
+        assertEquals(0, index.getEventCount(start + 2));
+    }
+
+    public void testAllDayEventCoversItsDaysOnly() {
+        CalendarEvent oneDay = event(time(2021, Calendar.JANUARY, 5, 0), time(2021, Calendar.JANUARY, 6, 0), true);
+        CalendarEvent twoDays = event(time(2021, Calendar.JANUARY, 8, 0), time(2021, Calendar.JANUARY, 10, 0), true);
+        int start = day(2021, Calendar.JANUARY, 5);
+        DayEventIndex index = index(start, start + 6, oneDay, twoDays);
+
+        assertEquals(1, index.getEventCount(start));
+        assertEquals(0, index.getEventCount(start + 1));
+        assertEquals(0, index.getEventCount(start + 2));
+        assertEquals(1, index.getEventCount(start + 3));
+        assertEquals(1, index.getEventCount(start + 4));
+        assertEquals(0, index.getEventCount(start + 5));
+    }
+
+    public void testEventsCrossingDaylightSavingChanges() {
+        // 2021-03-14 lasts 23 hours and 2021-11-07 lasts 25 hours in New York
+        CalendarEvent springDay = event(time(2021, Calendar.MARCH, 14, 0), time(2021, Calendar.MARCH, 15, 0), true);
+        CalendarEvent springNight = event(time(2021, Calendar.MARCH, 13, 22), time(2021, Calendar.MARCH, 15, 1), false);
+        CalendarEvent fallDay = event(time(2021, Calendar.NOVEMBER, 7, 0), time(2021, Calendar.NOVEMBER, 8, 0), true);
+        int spring = day(2021, Calendar.MARCH, 14);
+        int fall = day(2021, Calendar.NOVEMBER, 7);
+        DayEventIndex index = index(spring - 7, fall + 7, springDay, springNight, fallDay);
+
+        assertEquals(1, index.getEventCount(spring - 1));
+        assertEquals(2, index.getEventCount(spring));
+        assertEquals(1, index.getEventCount(spring + 1));
+        assertSame(springDay, index.getEvent(spring, 0));
+        assertSame(springNight, index.getEvent(spring, 1));
+        assertEquals(spring - 1, index.getStartDay(spring + 1, 0));
+        assertEquals(0, index.getEventCount(fall - 1));
+        assertEquals(1, index.getEventCount(fall));
+        assertEquals(0, index.getEventCount(fall + 1));
+    }
+
+    public void testDaysOutOfTheRangeAreIgnored() {
+        CalendarEvent before = event(time(2021, Calendar.JANUARY, 1, 9), time(2021, Calendar.JANUARY, 2, 9), false);
+        CalendarEvent overlapping = event(time(2021, Calendar.JANUARY, 3, 9), time(2021, Calendar.JANUARY, 6, 9), false);
+        CalendarEvent after = event(time(2021, Calendar.JANUARY, 20, 9), time(2021, Calendar.JANUARY, 20, 10), false);
+        int first = day(2021, Calendar.JANUARY, 5);
+        int last = first + 6;
+        DayEventIndex index = index(first, last, before, overlapping, after);
+
+        assertEquals(0, index.getEventCount(first - 2));
+        assertEquals(1, index.getEventCount(first));
+        assertSame(overlapping, index.getEvent(first, 0));
+        // the occurrence keeps its start day, out of the range
+        assertEquals(first - 2, index.getStartDay(first, 0));
+        assertEquals(1, index.getEventCount(first + 1));
+        assertEquals(0, index.getEventCount(first + 2));
+        assertEquals(0, index.getEventCount(day(2021, Calendar.JANUARY, 20)));
+    }
+
+    public void testEventsOfADayKeepTheOrderOfTheList() {
+        CalendarEvent late = event(time(2021, Calendar.JANUARY, 5, 18), time(2021, Calendar.JANUARY, 5, 19), false);
+        CalendarEvent early = event(time(2021, Calendar.JANUARY, 5, 8), time(2021, Calendar.JANUARY, 5, 9), false);
+        int day = day(2021, Calendar.JANUARY, 5);
+        DayEventIndex index = index(day, day, late, early);
+
+        assertEquals(2, index.getEventCount(day));
+        assertSame(late, index.getEvent(day, 0));
+        assertSame(early, index.getEvent(day, 1));
+    }
+
+    public void testRecurringEventIsExpandedInTheRange() {
+        long start = time(2021, Calendar.JANUARY, 4, 9).getTimeInMillis();
+        CalendarEvent weekly = new BaseCalendarEvent(1, 0, 0, "Class", "", "", start, 0, 0, "PT1H", "FREQ=WEEKLY", null);
+        int first = day(2021, Calendar.JANUARY, 10);
+        DayEventIndex index = new DayEventIndex(Collections.singletonList(weekly), first, first + 13, TIME_ZONE);
+
+        assertEquals(0, index.getEventCount(first));
+        assertEquals(1, index.getEventCount(first + 1));
+        assertEquals(first + 1, index.getStartDay(first + 1, 0));
+        assertEquals(1, index.getEventCount(first + 8));
+        assertEquals(0, index.getEventCount(first + 9));
+    }
+
+    public void testLastDayBeforeFirstDayIsRejected() {
+        try {
+            new DayEventIndex(Collections.<CalendarEvent>emptyList(), 10, 9, TIME_ZONE);
+            fail("Built an index ending before it starts");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static DayEventIndex index(int firstDay, int lastDay, CalendarEvent... events) {
+        List<CalendarEvent> list = Arrays.asList(events);
+        return new DayEventIndex(list, firstDay, lastDay, TIME_ZONE);
+    }
+
+    private static CalendarEvent event(Calendar start, Calendar end, boolean allDay) {
+        return new BaseCalendarEvent("", "", "", 0, 0, start, end, allDay);
+    }
+
+    private static Calendar time(int year, int month, int dayOfMonth, int hour) {
+        Calendar cal = Calendar.getInstance(TIME_ZONE);
+        cal.clear();
+        cal.set(year, month, dayOfMonth, hour, 0);
+        return cal;
+    }
+
+    private static int day(int year, int month, int dayOfMonth) {
+        return DateHelper.toEpochDay(time(year, month, dayOfMonth, 12).getTimeInMillis(), TIME_ZONE);
+    }
+}
@@ -6,18 +6,20 @@ import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
 import android.os.Handler;
+import android.os.Looper;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 import android.util.AttributeSet;
 import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
-import android.widget.AbsListView;
-import android.widget.AdapterView;
 import android.widget.FrameLayout;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import com.github.tibolte.agendacalendarview.agenda.AgendaAdapter;
+import com.github.tibolte.agendacalendarview.agenda.AgendaListView;
 import com.github.tibolte.agendacalendarview.agenda.AgendaView;
 import com.github.tibolte.agendacalendarview.calendar.CalendarView;
 import com.github.tibolte.agendacalendarview.models.BaseCalendarEvent;
@@ -26,25 +28,29 @@ import com.github.tibolte.agendacalendarview.models.DayItem;
 import com.github.tibolte.agendacalendarview.models.IDayItem;
 import com.github.tibolte.agendacalendarview.models.IWeekItem;
 import com.github.tibolte.agendacalendarview.models.WeekItem;
-import com.github.tibolte.agendacalendarview.render.DefaultEventRenderer;
 import com.github.tibolte.agendacalendarview.render.EventRenderer;
+import com.github.tibolte.agendacalendarview.utils.BackgroundExecutor;
 import com.github.tibolte.agendacalendarview.utils.BusProvider;
+import com.github.tibolte.agendacalendarview.utils.DateHelper;
 import com.github.tibolte.agendacalendarview.utils.Events;
 import com.github.tibolte.agendacalendarview.utils.ListViewScrollTracker;
+import com.github.tibolte.agendacalendarview.utils.ViewPrefetcher;
 import com.github.tibolte.agendacalendarview.widgets.FloatingActionButton;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Future;
 
 import rx.Subscription;
-import se.emilsjolander.stickylistheaders.StickyListHeadersListView;
 
 /**
  * View holding the agenda and calendar view together.
  */
-public class AgendaCalendarView extends FrameLayout implements StickyListHeadersListView.OnStickyHeaderChangedListener {
+public class AgendaCalendarView extends FrameLayout implements AgendaListView.OnStickyHeaderChangedListener {
 
     private static final String LOG_TAG = AgendaCalendarView.class.getSimpleName();
 
@@ -54,6 +60,38 @@ public class AgendaCalendarView extends FrameLayout implements StickyListHeaders
 
     private int mAgendaCurrentDayTextColor, mCalendarHeaderColor, mCalendarHeaderTextColor, mCalendarBackgroundColor, mCalendarDayTextColor, mCalendarPastDayTextColor, mCalendarCurrentDayColor, mFabColor;
     private CalendarPickerController mCalendarPickerController;
+    private boolean mLazyCalendar;
+    /**
+     * Manager of the calendar shown, owned by this view unless one is given to it
+     */
+    private CalendarManager mCalendarManager;
+    /**
+     * Bus of the interactions with the views of this calendar (clicked day, scrolls, touches).
+     * The manager's bus may be shared with other views, it only carries the changes of the data.
+     */
+    private final BusProvider mBus = new BusProvider();
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+    /**
+     * Build started by initAsync, null if none is running
+     */
+    private Future<?> mInitTask;
+    /**
+     * Incremented by every init, so the result of an older build is dropped
+     */
+    private int mInitGeneration;
+    /**
+     * Loader of the events around the visible dates, null if the events were all given to init
+     */
+    private EventSourceLoader mEventSourceLoader;
+    /**
+     * Rows inflated by initAsync for each renderer, and week rows, 0 to inflate them on demand
+     */
+    private int mPrefetchedEventRows, mPrefetchedWeekRows;
+    /**
+     * Rows inflated while initAsync builds the calendar, null if none
+     */
+    private ViewPrefetcher mAgendaPrefetcher, mWeeksPrefetcher;
 
     public AgendaView getAgendaView() {
         return mAgendaView;
@@ -62,15 +100,16 @@ public class AgendaCalendarView extends FrameLayout implements StickyListHeaders
     private final List<Subscription> subscriptions = new ArrayList<>();
 
     private ListViewScrollTracker mAgendaListViewScrollTracker;
-    public final AbsListView.OnScrollListener agendaScrollListener = new AbsListView.OnScrollListener() {
+    public final RecyclerView.OnScrollListener agendaScrollListener = new RecyclerView.OnScrollListener() {
         @Override
-        public void onScrollStateChanged(AbsListView view, int scrollState) {
-        }
-
-        @Override
-        public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+        public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
             if (mAgendaListViewScrollTracker == null)
                 return;
+            LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+            int firstVisibleItem = layoutManager.findFirstVisibleItemPosition();
+            if (firstVisibleItem == RecyclerView.NO_POSITION)
+                return;
+            int visibleItemCount = layoutManager.findLastVisibleItemPosition() - firstVisibleItem + 1;
             int scrollY = mAgendaListViewScrollTracker.calculateScrollY(firstVisibleItem, visibleItemCount);
             if (scrollY != 0) {
                 mFloatingActionButton.show();
@@ -108,13 +147,21 @@ public class AgendaCalendarView extends FrameLayout implements StickyListHeaders
 
     // region Class - View
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        if (mCalendarManager != null && subscriptions.isEmpty()) {
+            subscribe();
+        }
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
+        cancelInit();
 
-        for (Subscription sub: subscriptions) {
-            sub.unsubscribe();
-        }
+        unsubscribe();
     }
 
     @Override
@@ -122,6 +169,8 @@ public class AgendaCalendarView extends FrameLayout implements StickyListHeaders
         super.onFinishInflate();
         mCalendarView = (CalendarView) findViewById(R.id.calendar_view);
         mAgendaView = (AgendaView) findViewById(R.id.agenda_view);
+        mCalendarView.setBus(mBus);
+        mAgendaView.setBus(mBus);
         mFloatingActionButton = (FloatingActionButton) findViewById(R.id.floating_action_button);
         ColorStateList csl = new ColorStateList(new int[][]{new int[0]}, new int[]{mFabColor});
         mFloatingActionButton.setBackgroundTintList(csl);
@@ -133,17 +182,253 @@ public class AgendaCalendarView extends FrameLayout implements StickyListHeaders
             txtDay.setTextColor(mCalendarHeaderTextColor);
         }
         mCalendarView.findViewById(R.id.list_week).setBackgroundColor(mCalendarBackgroundColor);
+        mCalendarView.getListViewWeeks().addOnScrollListener(new RecyclerView.OnScrollListener() {
+            /**
+             * First visible week and the loader it was given to, called for every scrolled pixel
+             */
+            private int mFirstVisibleWeek = RecyclerView.NO_POSITION;
+            private EventSourceLoader mLoader;
+
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                int position = layoutManager.findFirstVisibleItemPosition();
+                if (position == mFirstVisibleWeek && mEventSourceLoader == mLoader) {
+                    return;
+                }
+                mFirstVisibleWeek = position;
+                mLoader = mEventSourceLoader;
+                if (mEventSourceLoader != null && position != RecyclerView.NO_POSITION) {
+                    IWeekItem weekItem = mCalendarManager.getWeeks().get(position);
+                    mEventSourceLoader.onDayVisible(weekItem.getDayItems().get(0).getEpochDay());
+                }
+            }
+        });
 
-        mAgendaView.getAgendaListView().setOnItemClickListener((AdapterView<?> parent, View view, int position, long id) -> {
-            mCalendarPickerController.onEventSelected(CalendarManager.getInstance().getEvents().get(position));
+        mAgendaView.getAgendaListView().setOnItemClickListener((AgendaListView listView, View view, int position, long id) -> {
+            mCalendarPickerController.onEventSelected(getAgendaEvent(position));
         });
 
-        Subscription sub = BusProvider.getInstance().toObserverable()
+        setCalendarManager(new CalendarManager(getContext()));
+    }
+
+    // endregion
+
+    // region Interface - AgendaListView.OnStickyHeaderChangedListener
+
+    @Override
+    public void onStickyHeaderChanged(AgendaListView listView, int position, long headerId) {
+        //Log.d(LOG_TAG, String.format("onStickyHeaderChanged, position = %d, headerId = %d", position, headerId));
+
+        if (mAgendaView.getAgendaListView().getAdapter().getItemCount() > 0) {
+            CalendarEvent event = getAgendaEvent(position);
+            if (event != null) {
+                if (mEventSourceLoader != null) {
+                    mEventSourceLoader.onDayVisible(event.getInstanceEpochDay());
+                }
+                mCalendarView.scrollToDate(event);
+                mCalendarPickerController.onScrollToDate(event.getInstanceDay());
+            }
+        }
+    }
+
+    // endregion
+
+    // region Public methods
+
+    public CalendarManager getCalendarManager() {
+        return mCalendarManager;
+    }
+
+    /**
+     * Show the calendar of another manager, which may be shared with other views, so a calendar
+     * built once is shown again without building it. The views are fed by
+     * {@link #init(CalendarManager, CalendarPickerController, EventRenderer[])}, or by the next
+     * init which builds the calendar into that manager: every init, initAsync included, builds
+     * into the current manager, so the other views showing it are updated too.
+     */
+    public void setCalendarManager(CalendarManager calendarManager) {
+        if (calendarManager == null) {
+            throw new IllegalArgumentException("calendarManager is null.");
+        }
+        mCalendarManager = calendarManager;
+        mAgendaView.setCalendarManager(calendarManager);
+        subscribe();
+    }
+
+    /**
+     * Show a calendar already built by a manager, given to another view before for example.
+     */
+    public void init(CalendarManager calendarManager, CalendarPickerController calendarPickerController, EventRenderer<?> ... renderers) {
+        cancelInit();
+        mCalendarPickerController = calendarPickerController;
+        setCalendarManager(calendarManager);
+
+        setUpViews(calendarManager.getSourceEvents(), renderers);
+    }
+
+    public void init(List<CalendarEvent> eventList, Calendar minDate, Calendar maxDate, Locale locale, CalendarPickerController calendarPickerController, EventRenderer<?> ... renderers) {
+        cancelInit();
+        mCalendarPickerController = calendarPickerController;
+
+        mCalendarManager.buildCal(minDate, maxDate, locale, new DayItem(), new WeekItem(), mLazyCalendar);
+        mCalendarManager.loadEvents(eventList, new BaseCalendarEvent());
+
+        setUpViews(mCalendarManager.getSourceEvents(), renderers);
+        Log.d(LOG_TAG, "CalendarEventTask finished, event count "+eventList.size());
+    }
+
+    public void init(Locale locale, List<IWeekItem> lWeeks, List<IDayItem> lDays, List<CalendarEvent> lEvents, CalendarPickerController calendarPickerController, EventRenderer<?> ... renderers) {
+        cancelInit();
+        mCalendarPickerController = calendarPickerController;
+
+        mCalendarManager.loadCal(locale, lWeeks, lDays, lEvents);
+
+        setUpViews(lEvents, renderers);
+        Log.d(LOG_TAG, "CalendarEventTask finished");
+    }
+
+    /**
+     * Same as {@link #init(List, Calendar, Calendar, Locale, CalendarPickerController, EventRenderer[])},
+     * but the calendar is built on a background thread and the views are fed on the main thread
+     * once it is ready. Like init, it builds into the current manager, see
+     * {@link #setCalendarManager(CalendarManager)}. Calling any init again cancels a build still
+     * running. If the build fails, the error is given to
+     * {@link CalendarPickerController#onInitFailed(RuntimeException)}.
+     */
+    public void initAsync(List<CalendarEvent> eventList, Calendar minDate, Calendar maxDate, Locale locale, CalendarPickerController calendarPickerController, EventRenderer<?> ... renderers) {
+        cancelInit();
+        final int generation = mInitGeneration;
+        final boolean lazy = mLazyCalendar;
+        final CalendarManager calendarManager = mCalendarManager;
+        final List<CalendarEvent> events = new ArrayList<>(eventList);
+        final Calendar min = (Calendar) minDate.clone();
+        final Calendar max = (Calendar) maxDate.clone();
+
+        prefetchRows(renderers);
+        mInitTask = BackgroundExecutor.getInitExecutor().submit(() -> {
+            try {
+                calendarManager.buildCal(min, max, locale, new DayItem(), new WeekItem(), lazy);
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                calendarManager.loadEvents(events, new BaseCalendarEvent());
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+
+                mMainHandler.post(() -> {
+                    // a newer init was called meanwhile
+                    if (generation != mInitGeneration) {
+                        return;
+                    }
+                    mInitTask = null;
+                    mCalendarPickerController = calendarPickerController;
+                    setUpViews(calendarManager.getSourceEvents(), renderers);
+                    Log.d(LOG_TAG, "CalendarEventTask finished, event count "+events.size());
+                });
+            } catch (RuntimeException e) {
+                // reported to the caller, the views keep showing the previous calendar
+                Log.e(LOG_TAG, "Could not build the calendar", e);
+                mMainHandler.post(() -> {
+                    if (generation != mInitGeneration) {
+                        return;
+                    }
+                    mInitTask = null;
+                    calendarPickerController.onInitFailed(e);
+                });
+            }
+        });
+    }
+
+    /**
+     * Same as {@link #init(List, Calendar, Calendar, Locale, CalendarPickerController, EventRenderer[])},
+     * but the events are queried from the source by date range, around the dates visible in the
+     * agenda and the calendar, instead of being all loaded up front.
+     */
+    public void init(EventSource eventSource, Calendar minDate, Calendar maxDate, Locale locale, CalendarPickerController calendarPickerController, EventRenderer<?> ... renderers) {
+        init(new ArrayList<>(), minDate, maxDate, locale, calendarPickerController, renderers);
+
+        mEventSourceLoader = new EventSourceLoader(eventSource, mCalendarManager, BackgroundExecutor.getEventSourceExecutor(), mMainHandler);
+        mEventSourceLoader.onDayVisible(DateHelper.toEpochDay(mCalendarManager.getToday()));
+    }
+
+    /**
+     * Inflate rows of the agenda and of the calendar while {@link #initAsync(List, Calendar, Calendar, Locale, CalendarPickerController, EventRenderer[])}
+     * builds the calendar, so the first scroll doesn't inflate them. The library's layouts are
+     * inflated on a background thread, the layouts of the renderers on the main thread.
+     *
+     * @param eventRows The number of rows for each renderer, and of day headers, 0 to disable.
+     * @param weekRows  The number of week rows, 0 to disable.
+     */
+    public void setPrefetchedRows(int eventRows, int weekRows) {
+        if (eventRows < 0 || weekRows < 0) {
+            throw new IllegalArgumentException("Negative number of rows.");
+        }
+        mPrefetchedEventRows = eventRows;
+        mPrefetchedWeekRows = weekRows;
+    }
+
+    /**
+     * Cancel the build started by {@link #initAsync(List, Calendar, Calendar, Locale, CalendarPickerController, EventRenderer[])},
+     * if still running, its result won't be delivered. Also stops loading the events of an
+     * {@link EventSource}.
+     */
+    public void cancelInit() {
+        mInitGeneration++;
+        if (mInitTask != null) {
+            mInitTask.cancel(true);
+            mInitTask = null;
+        }
+        if (mEventSourceLoader != null) {
+            mEventSourceLoader.cancel();
+            mEventSourceLoader = null;
+        }
+        if (mAgendaPrefetcher != null) {
+            mAgendaPrefetcher.cancel();
+            mAgendaPrefetcher = null;
+        }
+        if (mWeeksPrefetcher != null) {
+            mWeeksPrefetcher.cancel();
+            mWeeksPrefetcher = null;
+        }
+    }
+
+    /**
+     * Feed the views with the content of the CalendarManager.
+     */
+    private void setUpViews(List<CalendarEvent> eventList, EventRenderer<?> ... renderers) {
+        // Feed our views with weeks list and events
+        mCalendarView.setViewPrefetcher(mWeeksPrefetcher);
+        mCalendarView.init(mCalendarManager, mCalendarDayTextColor, mCalendarCurrentDayColor, mCalendarPastDayTextColor, eventList);
+
+        // Load agenda events and scroll to current day
+        AgendaAdapter agendaAdapter = new AgendaAdapter(mCalendarManager, mAgendaCurrentDayTextColor);
+        agendaAdapter.setViewPrefetcher(mAgendaPrefetcher);
+        // the events no renderer is given for are rendered by the adapter's default renderer
+        for (EventRenderer<?> renderer: renderers) {
+            addEventRenderer(agendaAdapter, renderer);
+        }
+
+        mAgendaView.getAgendaListView().setAdapter(agendaAdapter);
+        mAgendaView.getAgendaListView().setOnStickyHeaderChangedListener(this);
+
+        // notify that actually everything is loaded
+        mCalendarManager.getBus().send(new Events.EventsFetched());
+    }
+
+    private void subscribe() {
+        unsubscribe();
+        subscriptions.add(mBus.toObserverable()
                 .subscribe(event -> {
                     if (event instanceof Events.DayClickedEvent) {
                         if (mCalendarPickerController != null)
                             mCalendarPickerController.onDaySelected(((Events.DayClickedEvent) event).getDay());
-                    } else if (event instanceof Events.EventsFetched) {
+                    }
+                }));
+        Subscription sub = mCalendarManager.getBus().toObserverable()
+                .subscribe(event -> {
+                    if (event instanceof Events.EventsFetched) {
                         ObjectAnimator alphaAnimation = ObjectAnimator.ofFloat(this, "alpha", getAlpha(), 1f).setDuration(500);
                         alphaAnimation.addListener(new Animator.AnimatorListener() {
                             @Override
@@ -161,8 +446,8 @@ public class AgendaCalendarView extends FrameLayout implements StickyListHeaders
                                     mAgendaListViewScrollTracker = new ListViewScrollTracker(mAgendaView.getAgendaListView());
                                     mFloatingActionButton.setOnClickListener((v) -> {
                                         mAgendaView.translateList(0);
-                                        mAgendaView.getAgendaListView().smoothScrollBy(0, 0);
-                                        mAgendaView.getAgendaListView().scrollToCurrentDate(CalendarManager.getInstance().getToday());
+                                        mAgendaView.getAgendaListView().stopScroll();
+                                        mAgendaView.getAgendaListView().scrollToCurrentDate(mCalendarManager.getToday());
                                         new Handler().postDelayed(() -> mFloatingActionButton.hide(), fabAnimationDelay);
                                     });
                                 }, fabAnimationDelay);
@@ -184,73 +469,42 @@ public class AgendaCalendarView extends FrameLayout implements StickyListHeaders
         subscriptions.add(sub);
     }
 
-    // endregion
-
-    // region Interface - StickyListHeadersListView.OnStickyHeaderChangedListener
-
-    @Override
-    public void onStickyHeaderChanged(StickyListHeadersListView stickyListHeadersListView, View header, int position, long headerId) {
-        //Log.d(LOG_TAG, String.format("onStickyHeaderChanged, position = %d, headerId = %d", position, headerId));
-
-        if (CalendarManager.getInstance().getEvents().size() > 0) {
-            CalendarEvent event = CalendarManager.getInstance().getEvents().get(position);
-            if (event != null) {
-                mCalendarView.scrollToDate(event);
-                mCalendarPickerController.onScrollToDate(event.getInstanceDay());
-            }
+    private void unsubscribe() {
+        for (Subscription sub: subscriptions) {
+            sub.unsubscribe();
         }
+        subscriptions.clear();
     }
 
-    // endregion
-
-    // region Public methods
-
-    public void init(List<CalendarEvent> eventList, Calendar minDate, Calendar maxDate, Locale locale, CalendarPickerController calendarPickerController, EventRenderer<?> ... renderers) {
-        mCalendarPickerController = calendarPickerController;
-
-        CalendarManager.getInstance(getContext()).buildCal(minDate, maxDate, locale, new DayItem(), new WeekItem());
-
-        // Feed our views with weeks list and events
-        mCalendarView.init(CalendarManager.getInstance(getContext()), mCalendarDayTextColor, mCalendarCurrentDayColor, mCalendarPastDayTextColor, eventList);
-
-        // Load agenda events and scroll to current day
-        AgendaAdapter agendaAdapter = new AgendaAdapter(mAgendaCurrentDayTextColor);
-        // add default event renderer
-        addEventRenderer(agendaAdapter, new DefaultEventRenderer());
-        for (EventRenderer<?> renderer: renderers) {
-            addEventRenderer(agendaAdapter, renderer);
-        }
-
-        mAgendaView.getAgendaListView().setAdapter(agendaAdapter);
-        mAgendaView.getAgendaListView().setOnStickyHeaderChangedListener(this);
-
-        CalendarManager.getInstance().loadEvents(eventList, new BaseCalendarEvent());
-        BusProvider.getInstance().send(new Events.EventsFetched());
-        Log.d(LOG_TAG, "CalendarEventTask finished, event count "+eventList.size());
+    /**
+     * Get the event shown at a position of the agenda, from the version of the events the adapter
+     * holds, the positions refer to it.
+     */
+    private CalendarEvent getAgendaEvent(int position) {
+        return mAgendaView.getAgendaListView().getAdapter().getItem(position);
     }
 
-    public void init(Locale locale, List<IWeekItem> lWeeks, List<IDayItem> lDays, List<CalendarEvent> lEvents, CalendarPickerController calendarPickerController, EventRenderer<?> ... renderers) {
-        mCalendarPickerController = calendarPickerController;
-
-        CalendarManager.getInstance(getContext()).loadCal(locale, lWeeks, lDays, lEvents);
-
-        // Feed our views with weeks list and events
-        mCalendarView.init(CalendarManager.getInstance(getContext()), mCalendarDayTextColor, mCalendarCurrentDayColor, mCalendarPastDayTextColor, lEvents);
-
-        // Load agenda events and scroll to current day
-        AgendaAdapter agendaAdapter = new AgendaAdapter(mAgendaCurrentDayTextColor);
-        // add default event renderer
-        addEventRenderer(agendaAdapter, new DefaultEventRenderer());
-        for (EventRenderer<?> renderer: renderers) {
-            addEventRenderer(agendaAdapter, renderer);
+    /**
+     * Start inflating the rows, taken by the adapters set up once the calendar is built.
+     */
+    private void prefetchRows(EventRenderer<?>... renderers) {
+        if (mPrefetchedEventRows > 0) {
+            mAgendaPrefetcher = new ViewPrefetcher(mAgendaView.getAgendaListView());
+            mAgendaPrefetcher.prefetch(R.layout.view_agenda_header, mPrefetchedEventRows, true);
+            Set<Integer> layouts = new HashSet<>();
+            layouts.add(R.layout.view_agenda_event);
+            mAgendaPrefetcher.prefetch(R.layout.view_agenda_event, mPrefetchedEventRows, true);
+            for (EventRenderer<?> renderer : renderers) {
+                // the views of the apps may need the main thread
+                if (layouts.add(renderer.getEventLayout())) {
+                    mAgendaPrefetcher.prefetch(renderer.getEventLayout(), mPrefetchedEventRows, false);
+                }
+            }
+        }
+        if (mPrefetchedWeekRows > 0) {
+            mWeeksPrefetcher = new ViewPrefetcher(mCalendarView.getListViewWeeks());
+            mWeeksPrefetcher.prefetch(R.layout.list_item_week, mPrefetchedWeekRows, true);
         }
-
-        mAgendaView.getAgendaListView().setAdapter(agendaAdapter);
-        mAgendaView.getAgendaListView().setOnStickyHeaderChangedListener(this);
-
-        // notify that actually everything is loaded
-        BusProvider.getInstance().send(new Events.EventsFetched());
-        Log.d(LOG_TAG, "CalendarEventTask finished");
     }
 
     private void addEventRenderer(AgendaAdapter agendaAdapter, @NonNull final EventRenderer<?> renderer) {
@@ -267,5 +521,15 @@ public class AgendaCalendarView extends FrameLayout implements StickyListHeaders
         mFloatingActionButton.setVisibility(enable ? VISIBLE : GONE);
     }
 
+    /**
+     * Build the weeks and days of the calendar on demand instead of all at once, for long date
+     * ranges. Must be called before {@link #init(List, Calendar, Calendar, Locale, CalendarPickerController, EventRenderer[])}.
+     *
+     * @param enable True to build the calendar lazily.
+     */
+    public void enableLazyCalendar(boolean enable) {
+        mLazyCalendar = enable;
+    }
+
     // endregion
 }
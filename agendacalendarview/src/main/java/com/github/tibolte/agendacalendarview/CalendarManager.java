@@ -1,40 +1,75 @@
 package com.github.tibolte.agendacalendarview;
 
+import com.github.tibolte.agendacalendarview.models.BaseCalendarEvent;
 import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.models.EventOccurrence;
 import com.github.tibolte.agendacalendarview.models.IDayItem;
 import com.github.tibolte.agendacalendarview.models.IWeekItem;
+import com.github.tibolte.agendacalendarview.models.PlaceholderEvent;
+import com.github.tibolte.agendacalendarview.utils.BackgroundExecutor;
+import com.github.tibolte.agendacalendarview.utils.BusProvider;
 import com.github.tibolte.agendacalendarview.utils.DateHelper;
+import com.github.tibolte.agendacalendarview.utils.DateLabels;
+import com.github.tibolte.agendacalendarview.utils.DayEventIndex;
+import com.github.tibolte.agendacalendarview.utils.Events;
 
 import android.content.Context;
+import android.os.Looper;
 import android.util.Log;
 
+import java.io.File;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Date;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
 
 /**
  * This class manages information about the calendar. (Events, weather info...)
  * Holds reference to the days list of the calendar.
- * As the app is using several views, we want to keep everything in one place.
+ * As the app is using several views, we want to keep everything in one place. Each
+ * AgendaCalendarView owns a manager, which may be handed to another view to show the same
+ * calendar without building it again.
+ * The calendar is built and updated under the lock of the manager, on private copies, and each
+ * complete version is published as an immutable {@link CalendarModel}, which the views may read
+ * from any thread.
  */
 public class CalendarManager {
 
     private static final String LOG_TAG = CalendarManager.class.getSimpleName();
 
-    private static CalendarManager mInstance;
-
     private Context mContext;
+    /**
+     * Bus of the views showing this calendar, carrying the changes of the data (EventsFetched,
+     * EventsChanged), the interactions with a view go through a bus of its own
+     */
+    private final BusProvider mBus = new BusProvider();
     private Locale mLocale;
     private Calendar mToday = Calendar.getInstance();
     private SimpleDateFormat mWeekdayFormatter;
     private SimpleDateFormat mMonthHalfNameFormat;
+    /**
+     * Labels of the days and months in the locale of the calendar
+     */
+    private DateLabels mDateLabels;
 
-    /// instances of classes provided from outside
-    private IDayItem mCleanDay;
-    private IWeekItem mCleanWeek;
+    /**
+     * Version of the calendar read by the views, replaced as a whole when the calendar changes
+     */
+    private volatile CalendarModel mModel = CalendarModel.EMPTY;
+
+    // The fields below are the version being built, only accessed while holding the lock of the
+    // manager. They are never modified once published, the changes are made on copies.
 
     /**
      * List of days used by the calendar
@@ -48,22 +83,37 @@ public class CalendarManager {
      * List of events instances
      */
     private List<CalendarEvent> mEvents = new ArrayList<>();
+    /**
+     * List of the events the instances are created from
+     */
+    private List<CalendarEvent> mSourceEvents = new ArrayList<>();
+    /**
+     * Template shared by the placeholders shown for days without events
+     */
+    private CalendarEvent mPlaceholderTemplate;
+    /**
+     * Weeks built on demand, null if the calendar is built eagerly
+     */
+    private LazyWeekList mLazyWeeks;
+    /**
+     * Dates the calendar was built with, kept for the snapshots
+     */
+    private Calendar mMinCal;
+    private Calendar mMaxCal;
+    /**
+     * Epoch day of the first day of the calendar
+     */
+    private int mFirstDay;
+    /**
+     * Position in mEvents of the first instance of each day, with one extra trailing entry, so the
+     * instances of day i are found between mDayPositions[i] and mDayPositions[i + 1]
+     */
+    private int[] mDayPositions = new int[1];
 
     // region Constructors
 
     public CalendarManager(Context context) {
-        this.mContext = context;
-    }
-
-    public static CalendarManager getInstance(Context context) {
-        if (mInstance == null) {
-            mInstance = new CalendarManager(context);
-        }
-        return mInstance;
-    }
-
-    public static CalendarManager getInstance() {
-        return mInstance;
+        this.mContext = context.getApplicationContext();
     }
 
     // endregion
@@ -78,6 +128,10 @@ public class CalendarManager {
         return mContext;
     }
 
+    public BusProvider getBus() {
+        return mBus;
+    }
+
     public Calendar getToday() {
         return mToday;
     }
@@ -86,16 +140,28 @@ public class CalendarManager {
         this.mToday = today;
     }
 
+    /**
+     * Get the current version of the calendar. Views reading several of its lists should read
+     * them from the same version.
+     */
+    public CalendarModel getModel() {
+        return mModel;
+    }
+
     public List<IWeekItem> getWeeks() {
-        return mWeeks;
+        return mModel.getWeeks();
     }
 
     public List<CalendarEvent> getEvents() {
-        return mEvents;
+        return mModel.getEvents();
     }
 
     public List<IDayItem> getDays() {
-        return mDays;
+        return mModel.getDays();
+    }
+
+    public List<CalendarEvent> getSourceEvents() {
+        return mModel.getSourceEvents();
     }
 
     public SimpleDateFormat getWeekdayFormatter() {
@@ -106,11 +172,30 @@ public class CalendarManager {
         return mMonthHalfNameFormat;
     }
 
+    public DateLabels getDateLabels() {
+        return mDateLabels;
+    }
+
     // endregion
 
     // region Public methods
 
     public void buildCal(Calendar minDate, Calendar maxDate, Locale locale, IDayItem cleanDay, IWeekItem cleanWeek) {
+        buildCal(minDate, maxDate, locale, cleanDay, cleanWeek, false);
+    }
+
+    /**
+     * Build the weeks and days of the calendar. They are published with the events, by
+     * {@link #loadEvents(List, CalendarEvent)}, so the views never show weeks without their
+     * events.
+     *
+     * If the calling thread is interrupted, it stops early, the calendar has to be built again.
+     *
+     * @param lazy If true, the weeks and their days are only built when accessed, and only a small
+     *             window of them is kept in memory. Event instances then hold no day or week
+     *             reference, use {@link #getDay(CalendarEvent)} to find their day.
+     */
+    public synchronized void buildCal(Calendar minDate, Calendar maxDate, Locale locale, IDayItem cleanDay, IWeekItem cleanWeek, boolean lazy) {
         if (minDate == null || maxDate == null) {
             throw new IllegalArgumentException(
                     "minDate and maxDate must be non-null.");
@@ -123,137 +208,645 @@ public class CalendarManager {
             throw new IllegalArgumentException("Locale is null.");
         }
 
+        // the days being built read the labels of the locale, it is set back if the build is
+        // cancelled, the rest of the build only replaces the previous one once complete
+        Locale previousLocale = mLocale;
         setLocale(locale);
 
-        mDays.clear();
-        mWeeks.clear();
-        mEvents.clear();
-
-        mCleanDay = cleanDay;
-        mCleanWeek = cleanWeek;
-
         Calendar mMinCal = Calendar.getInstance(mLocale);
         Calendar mMaxCal = Calendar.getInstance(mLocale);
         Calendar mWeekCounter = Calendar.getInstance(mLocale);
 
         mMinCal.setTime(minDate.getTime());
         mMaxCal.setTime(maxDate.getTime());
+        WeekFactory weekFactory = new WeekFactory(this, mMinCal.getTime(), mLocale, cleanDay, cleanWeek);
+
+        // the first day of the calendar is the first day of the week holding minDate
+        Calendar firstDayCal = weekFactory.getFirstDayOfWeek(mMinCal);
+        int firstDay = DateHelper.toEpochDay(firstDayCal);
 
         // maxDate is exclusive, here we bump back to the previous day, as maxDate if December 1st, 2020,
         // we don't include that month in our list
         mMaxCal.add(Calendar.MINUTE, -1);
 
-        // Now iterate we iterate between mMinCal and mMaxCal so we build our list of weeks
-        mWeekCounter.setTime(mMinCal.getTime());
-        int maxMonth = mMaxCal.get(Calendar.MONTH);
-        int maxYear = mMaxCal.get(Calendar.YEAR);
+        LazyWeekList lazyWeeks = null;
+        List<IWeekItem> weeks;
+        List<IDayItem> days;
+        if (lazy) {
+            // weeks start every 7 days from minDate, up to the end of the month of maxDate
+            Calendar endCal = Calendar.getInstance(mLocale);
+            endCal.setTime(mMaxCal.getTime());
+            endCal.set(Calendar.DAY_OF_MONTH, 1);
+            endCal.add(Calendar.MONTH, 1);
+            int dayCount = DateHelper.toEpochDay(endCal) - DateHelper.toEpochDay(mMinCal);
+            lazyWeeks = new LazyWeekList(weekFactory, Math.max(0, (dayCount + 6) / 7));
+            weeks = lazyWeeks;
+            days = new LazyWeekList.Days(lazyWeeks);
+        } else {
+            weeks = new ArrayList<>();
+            days = new ArrayList<>();
+
+            // Now iterate we iterate between mMinCal and mMaxCal so we build our list of weeks
+            mWeekCounter.setTime(mMinCal.getTime());
+            int maxMonth = mMaxCal.get(Calendar.MONTH);
+            int maxYear = mMaxCal.get(Calendar.YEAR);
+
+            int currentMonth = mWeekCounter.get(Calendar.MONTH);
+            int currentYear = mWeekCounter.get(Calendar.YEAR);
+
+            // Loop through the weeks
+            while ((currentMonth <= maxMonth // Up to, including the month.
+                    || currentYear < maxYear) // Up to the year.
+                    && currentYear < maxYear + 1) { // But not > next yr.
+
+                if (isInterrupted()) {
+                    restoreLocale(previousLocale);
+                    return;
+                }
+                // Build our week list
+                IWeekItem weekItem = weekFactory.createWeek(mWeekCounter, weeks.size());
+                days.addAll(weekItem.getDayItems());
+                weeks.add(weekItem);
+
+                //Log.d(LOG_TAG, String.format("Adding week: %s", weekItem));
 
-        int currentMonth = mWeekCounter.get(Calendar.MONTH);
-        int currentYear = mWeekCounter.get(Calendar.YEAR);
+                mWeekCounter.add(Calendar.WEEK_OF_YEAR, 1);
 
-        // Loop through the weeks
-        while ((currentMonth <= maxMonth // Up to, including the month.
-                || currentYear < maxYear) // Up to the year.
-                && currentYear < maxYear + 1) { // But not > next yr.
+                currentMonth = mWeekCounter.get(Calendar.MONTH);
+                currentYear = mWeekCounter.get(Calendar.YEAR);
+            }
+        }
 
-            Date date = mWeekCounter.getTime();
-            // Build our week list
-            int currentWeekOfYear = mWeekCounter.get(Calendar.WEEK_OF_YEAR);
+        this.mMinCal = (Calendar) minDate.clone();
+        this.mMaxCal = (Calendar) maxDate.clone();
+        mFirstDay = firstDay;
+        mLazyWeeks = lazyWeeks;
+        mWeeks = weeks;
+        mDays = days;
+        mEvents = new ArrayList<>();
+        mSourceEvents = new ArrayList<>();
+        mDayPositions = new int[1];
+    }
 
-            IWeekItem weekItem = cleanWeek.copy();
-            weekItem.setWeekInYear(currentWeekOfYear);
-            weekItem.setYear(currentYear);
-            weekItem.setDate(date);
-            weekItem.setMonth(currentMonth);
-            weekItem.setLabel(mMonthHalfNameFormat.format(date));
-            List<IDayItem> dayItems = getDayCells(mWeekCounter); // gather days for the built week
-            weekItem.setDayItems(dayItems);
-            mWeeks.add(weekItem);
+    /**
+     * Index the events by day, their instances on the days of the calendar are created when read,
+     * recurring events included. If the calling thread is interrupted, it stops early without
+     * publishing them, the calendar has to be loaded again.
+     */
+    public synchronized void loadEvents(List<CalendarEvent> eventList, CalendarEvent noEvent) {
+        mSourceEvents = new ArrayList<>(eventList);
+        mEvents = new ArrayList<>();
+        mDayPositions = new int[1];
+        mPlaceholderTemplate = createPlaceholderTemplate(noEvent != null ? noEvent : new BaseCalendarEvent());
+        int dayCount = mDays.size();
+        if (dayCount == 0) {
+            publish();
+            return;
+        }
 
-            //Log.d(LOG_TAG, String.format("Adding week: %s", weekItem));
+        // bucket the events by day once, instead of checking every event against every day
+        TimeZone timeZone = TimeZone.getDefault();
+        int firstDay = mFirstDay;
+        int lastDay = firstDay + dayCount - 1;
+        DayEventIndex eventIndex = new DayEventIndex(eventList, firstDay, lastDay, timeZone);
+        if (isInterrupted()) {
+            return;
+        }
 
-            mWeekCounter.add(Calendar.WEEK_OF_YEAR, 1);
+        // only the positions and badges are computed here, the instances are created by the list
+        // for the positions being read
+        int[] dayPositions = new int[dayCount + 1];
+        boolean[] badges = new boolean[dayCount];
+        int position = 0;
+        for (int dayIndex = 0; dayIndex < dayCount; dayIndex++) {
+            if (isInterrupted()) {
+                return;
+            }
+            int epochDay = firstDay + dayIndex;
+            int eventCount = eventIndex.getEventCount(epochDay);
+            dayPositions[dayIndex] = position;
+            for (int i = 0; i < eventCount; i++) {
+                if (eventIndex.getEvent(epochDay, i).getShowBadge()) {
+                    badges[dayIndex] = true;
+                }
+            }
+            // a day without events holds a placeholder
+            position += Math.max(eventCount, 1);
+        }
+        dayPositions[dayCount] = position;
+        for (int dayIndex = 0; dayIndex < dayCount; dayIndex++) {
+            setShowBadge(dayIndex, badges[dayIndex]);
+        }
+        mDayPositions = dayPositions;
+        mEvents = new LazyEventList(eventIndex, timeZone, firstDay, dayPositions, mPlaceholderTemplate,
+                mLazyWeeks == null ? mDays : null, mLazyWeeks == null ? mWeeks : null);
+        publish();
+    }
 
-            currentMonth = mWeekCounter.get(Calendar.MONTH);
-            currentYear = mWeekCounter.get(Calendar.YEAR);
+    /**
+     * Save the built calendar, so the next start can restore it with
+     * {@link #loadSnapshot(File, long, Calendar, Calendar, Locale, CalendarEvent)} instead of building
+     * it again.
+     * Only possible for events of the BaseCalendarEvent class.
+     *
+     * @param file          The file to write.
+     * @param sourceVersion A version of the source events, which has to change when they change.
+     */
+    public synchronized void saveSnapshot(File file, long sourceVersion) throws IOException {
+        if (mMinCal == null) {
+            throw new IllegalStateException("The calendar is not built.");
         }
+        CalendarSnapshot.write(mModel, file, sourceVersion, mMinCal, mMaxCal, mLocale);
     }
 
-    public void loadEvents(List<CalendarEvent> eventList, CalendarEvent noEvent) {
+    /**
+     * Restore a calendar saved by {@link #saveSnapshot(File, long)}, replacing
+     * {@link #buildCal(Calendar, Calendar, Locale, IDayItem, IWeekItem)} and
+     * {@link #loadEvents(List, CalendarEvent)}.
+     *
+     * @param file          The snapshot file.
+     * @param sourceVersion The current version of the source events.
+     * @param noEvent       The event the placeholders of the days without events are made from,
+     *                      as given to loadEvents, null for a BaseCalendarEvent.
+     * @return False if there's no snapshot for that version of the events, dates and locale, the
+     * calendar then has to be built.
+     */
+    public boolean loadSnapshot(File file, long sourceVersion, Calendar minDate, Calendar maxDate, Locale locale, CalendarEvent noEvent) throws IOException {
+        return CalendarSnapshot.read(this, file, sourceVersion, minDate, maxDate, locale, noEvent);
+    }
 
-        for (IWeekItem weekItem : getWeeks()) {
-            for (IDayItem dayItem : weekItem.getDayItems()) {
-                boolean isEventForDay = false;
-                boolean isShowBadgeForDay = false;
-                for (CalendarEvent event : eventList) {
-                    if (DateHelper.isBetweenInclusive(dayItem.getDate(), event.getStartTime(), event.getEndTime())) {
-                        CalendarEvent copy = event.copy();
+    /**
+     * Show weeks, days and event instances built by the app. The events the instances are created
+     * from replace the source events, the calendar has no dates to save a snapshot with.
+     */
+    public synchronized void loadCal (Locale locale, List<IWeekItem> lWeeks, List<IDayItem> lDays, List<CalendarEvent> lEvents) {
+        mLazyWeeks = null;
+        // copied, the caller keeps its lists
+        mWeeks = new ArrayList<>(lWeeks);
+        mDays = new ArrayList<>(lDays);
+        mEvents = new ArrayList<>(lEvents);
+        mMinCal = null;
+        mMaxCal = null;
+        mPlaceholderTemplate = null;
+        Set<CalendarEvent> sourceEvents = Collections.newSetFromMap(new IdentityHashMap<CalendarEvent, Boolean>());
+        mSourceEvents = new ArrayList<>();
+        for (CalendarEvent instance : lEvents) {
+            if (instance instanceof PlaceholderEvent) {
+                // keep the template of the app for the placeholders of the next updates
+                if (mPlaceholderTemplate == null) {
+                    mPlaceholderTemplate = ((PlaceholderEvent) instance).getTemplate();
+                }
+                continue;
+            }
+            if (instance.isPlaceholder()) {
+                continue;
+            }
+            CalendarEvent event = instance instanceof EventOccurrence ? ((EventOccurrence) instance).getEvent() : instance;
+            if (sourceEvents.add(event)) {
+                mSourceEvents.add(event);
+            }
+        }
+        setLocale(locale);
+        indexDayPositions();
+        publish();
+    }
 
-                        if (copy.getShowBadge()) {
-                            isShowBadgeForDay = true;
-                        }
+    /**
+     * Add events to the calendar, only the days they cover are rebuilt.
+     * May be called from any thread once the events are loaded, the views are told on the main
+     * thread.
+     *
+     * @param events The events to add.
+     */
+    public void addEvents(List<CalendarEvent> events) {
+        Events.EventsChanged eventsChanged;
+        synchronized (this) {
+            mSourceEvents = new ArrayList<>(mSourceEvents);
+            mSourceEvents.addAll(events);
+            boolean[] affectedDays = new boolean[mDays.size()];
+            markDays(affectedDays, events);
+            eventsChanged = updateDays(affectedDays, Collections.<Long>emptySet(), events);
+        }
+        sendChange(eventsChanged);
+    }
 
-                        Calendar dayInstance = Calendar.getInstance();
-                        dayInstance.setTime(dayItem.getDate());
-                        copy.setInstanceDay(dayInstance);
-                        copy.setDayReference(dayItem);
-                        copy.setWeekReference(weekItem);
-                        // add instances in chronological order
-                        getEvents().add(copy);
-                        isEventForDay = true;
-                    }
+    /**
+     * Replace the event having the given id, the new version keeps the place of the previous one
+     * in the days both of them cover. An unknown id adds the event.
+     * May be called from any thread once the events are loaded, the views are told on the main
+     * thread.
+     *
+     * @param id    The id of the event to replace.
+     * @param event The new version of the event.
+     */
+    public void updateEvent(long id, CalendarEvent event) {
+        Events.EventsChanged eventsChanged;
+        synchronized (this) {
+            mSourceEvents = new ArrayList<>(mSourceEvents);
+            boolean found = false;
+            for (int i = 0; i < mSourceEvents.size(); i++) {
+                if (mSourceEvents.get(i).getId() == id) {
+                    mSourceEvents.set(i, event);
+                    found = true;
                 }
-                if (!isEventForDay) {
-                    Calendar dayInstance = Calendar.getInstance();
-                    dayInstance.setTime(dayItem.getDate());
-                    CalendarEvent copy = noEvent.copy();
-
-                    copy.setInstanceDay(dayInstance);
-                    copy.setDayReference(dayItem);
-                    copy.setWeekReference(weekItem);
-                    copy.setLocation("");
-                    copy.setTitle(getContext().getResources().getString(R.string.agenda_event_no_events));
-                    copy.setPlaceholder(true);
-                    getEvents().add(copy);
+            }
+            if (!found) {
+                mSourceEvents.add(event);
+            }
+            Set<Long> ids = Collections.singleton(id);
+            List<CalendarEvent> events = Collections.singletonList(event);
+            boolean[] affectedDays = new boolean[mDays.size()];
+            markDays(affectedDays, ids);
+            markDays(affectedDays, events);
+            eventsChanged = updateDays(affectedDays, ids, events);
+        }
+        sendChange(eventsChanged);
+    }
+
+    /**
+     * Remove the events having the given ids, only the days they cover are rebuilt.
+     * May be called from any thread once the events are loaded, the views are told on the main
+     * thread.
+     *
+     * @param ids The ids of the events to remove.
+     */
+    public void removeEvents(Collection<Long> ids) {
+        Set<Long> removedIds = new HashSet<>(ids);
+        Events.EventsChanged eventsChanged;
+        synchronized (this) {
+            mSourceEvents = new ArrayList<>(mSourceEvents);
+            Iterator<CalendarEvent> iterator = mSourceEvents.iterator();
+            while (iterator.hasNext()) {
+                if (removedIds.contains(iterator.next().getId())) {
+                    iterator.remove();
                 }
-                dayItem.setShowBadge(isShowBadgeForDay);
             }
+            boolean[] affectedDays = new boolean[mDays.size()];
+            markDays(affectedDays, removedIds);
+            eventsChanged = updateDays(affectedDays, removedIds, Collections.<CalendarEvent>emptyList());
         }
+        sendChange(eventsChanged);
     }
 
-    public void loadCal (Locale locale, List<IWeekItem> lWeeks, List<IDayItem> lDays, List<CalendarEvent> lEvents) {
-        mWeeks = lWeeks;
-        mDays = lDays;
-        mEvents = lEvents;
-        setLocale(locale);
+    /**
+     * Find the day item of a date.
+     *
+     * @param calendar The date.
+     * @return The day item, null if the date is out of the calendar.
+     */
+    public IDayItem getDay(Calendar calendar) {
+        return getDay(DateHelper.toEpochDay(calendar));
+    }
+
+    /**
+     * Find the day item of an epoch day.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The day item, null if the day is out of the calendar.
+     */
+    public IDayItem getDay(int epochDay) {
+        return mModel.getDay(epochDay);
+    }
+
+    /**
+     * Find the day item of an event instance, from its day reference if set, else from its
+     * instance day.
+     *
+     * @param event The event instance.
+     * @return The day item.
+     */
+    public IDayItem getDay(CalendarEvent event) {
+        IDayItem dayItem = event.getDayReference();
+        return dayItem != null ? dayItem : getDay(event.getInstanceEpochDay());
+    }
+
+    /**
+     * Remember the selected day, so it is still selected when its week is built again.
+     *
+     * @param dayItem The selected day.
+     */
+    public void setSelectedDay(IDayItem dayItem) {
+        CalendarModel model = mModel;
+        if (model.getLazyWeeks() != null) {
+            model.getLazyWeeks().setSelectedDay(dayItem.getEpochDay() - model.getFirstDay());
+        }
+    }
+
+    // endregion
+
+    // region Package methods
+
+    /**
+     * Create the event instances read from a snapshot, instead of indexing the source events.
+     *
+     * @param noEvent       The event the placeholders are made from, null for a BaseCalendarEvent.
+     * @param sourceIndexes The index of the source event of each instance, -1 for a placeholder.
+     * @param dayOffsets    The day offset of each instance, for recurring events.
+     * @return False if the snapshot doesn't match the built days.
+     */
+    synchronized boolean restoreEvents(List<CalendarEvent> sourceEvents, CalendarEvent noEvent, int[] dayPositions, int[] sourceIndexes, int[] dayOffsets) {
+        int dayCount = mDays.size();
+        if (dayPositions.length != dayCount + 1 || dayPositions[0] != 0 || dayPositions[dayCount] != sourceIndexes.length
+                || dayOffsets.length != sourceIndexes.length) {
+            return false;
+        }
+        // a corrupted snapshot is built again, every day holds an instance
+        for (int dayIndex = 0; dayIndex < dayCount; dayIndex++) {
+            if (dayPositions[dayIndex] >= dayPositions[dayIndex + 1]) {
+                return false;
+            }
+        }
+        for (int sourceIndex : sourceIndexes) {
+            if (sourceIndex < -1 || sourceIndex >= sourceEvents.size()) {
+                return false;
+            }
+        }
+        mSourceEvents = sourceEvents;
+        mPlaceholderTemplate = createPlaceholderTemplate(noEvent != null ? noEvent : new BaseCalendarEvent());
+        mEvents = new ArrayList<>();
+        for (int dayIndex = 0; dayIndex < dayCount; dayIndex++) {
+            boolean isShowBadgeForDay = false;
+            for (int position = dayPositions[dayIndex]; position < dayPositions[dayIndex + 1]; position++) {
+                if (sourceIndexes[position] < 0) {
+                    mEvents.add(createPlaceholder(dayIndex));
+                    continue;
+                }
+                CalendarEvent instance = createInstance(sourceEvents.get(sourceIndexes[position]), dayIndex, dayOffsets[position]);
+                if (instance.getShowBadge()) {
+                    isShowBadgeForDay = true;
+                }
+                mEvents.add(instance);
+            }
+            setShowBadge(dayIndex, isShowBadgeForDay);
+        }
+        mDayPositions = dayPositions;
+        publish();
+        return true;
     }
 
     // endregion
 
     // region Private methods
 
-    private List<IDayItem> getDayCells(Calendar startCal) {
-        Calendar cal = Calendar.getInstance(mLocale);
-        cal.setTime(startCal.getTime());
-        List<IDayItem> dayItems = new ArrayList<>();
+    /**
+     * @return True if the build runs on a thread being interrupted, like a cancelled task.
+     */
+    private static boolean isInterrupted() {
+        return Thread.currentThread().isInterrupted();
+    }
 
-        int firstDayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
-        int offset = cal.getFirstDayOfWeek() - firstDayOfWeek;
-        if (offset > 0) {
-            offset -= 7;
+    /**
+     * Publish the version built so far to the views.
+     */
+    private void publish() {
+        mModel = new CalendarModel(mWeeks, mDays, mEvents, mSourceEvents, mFirstDay, mDayPositions);
+    }
+
+    /**
+     * @param dayOffset The number of days between the first occurrence of a recurring event and
+     *                  the one shown on that day, 0 for other events.
+     */
+    private CalendarEvent createInstance(CalendarEvent event, int dayIndex, int dayOffset) {
+        CalendarEvent occurrence = new EventOccurrence(event, mFirstDay + dayIndex, dayOffset);
+        setReferences(occurrence, dayIndex);
+        return occurrence;
+    }
+
+    private CalendarEvent createPlaceholder(int dayIndex) {
+        if (mPlaceholderTemplate == null) {
+            mPlaceholderTemplate = createPlaceholderTemplate(new BaseCalendarEvent());
         }
-        cal.add(Calendar.DATE, offset);
+        CalendarEvent placeholder = new PlaceholderEvent(mPlaceholderTemplate, mFirstDay + dayIndex);
+        setReferences(placeholder, dayIndex);
+        return placeholder;
+    }
 
-        //Log.d(LOG_TAG, String.format("Buiding row week starting at %s", cal.getTime()));
-        for (int c = 0; c < 7; c++) {
-            IDayItem dayItem = mCleanDay.copy();
-            dayItem.buildDayItemFromCal(cal);
-            dayItems.add(dayItem);
-            cal.add(Calendar.DATE, 1);
+    /**
+     * Set up the event shared by all the placeholders, the title is only resolved here.
+     */
+    private CalendarEvent createPlaceholderTemplate(CalendarEvent noEvent) {
+        CalendarEvent template = noEvent.copy();
+        template.setLocation("");
+        template.setTitle(getContext().getResources().getString(R.string.agenda_event_no_events));
+        template.setPlaceholder(true);
+        return template;
+    }
+
+    /**
+     * Link an instance to its day and week, unless they are built lazily: the instance would then
+     * keep them in memory.
+     */
+    private void setReferences(CalendarEvent instance, int dayIndex) {
+        if (mLazyWeeks == null) {
+            instance.setDayReference(mDays.get(dayIndex));
+            instance.setWeekReference(mWeeks.get(dayIndex / 7));
+        }
+    }
+
+    private void setShowBadge(int dayIndex, boolean showBadge) {
+        if (mLazyWeeks != null) {
+            mLazyWeeks.setShowBadge(dayIndex, showBadge);
+        } else {
+            mDays.get(dayIndex).setShowBadge(showBadge);
         }
+    }
 
-        mDays.addAll(dayItems);
-        return dayItems;
+    /**
+     * Rebuild the day positions table from the current days and events instances.
+     */
+    private void indexDayPositions() {
+        int dayCount = mDays.size();
+        mDayPositions = new int[dayCount + 1];
+        if (dayCount == 0) {
+            return;
+        }
+
+        mFirstDay = mDays.get(0).getEpochDay();
+        int dayIndex = 0;
+        for (int position = 0; position < mEvents.size(); position++) {
+            int eventDayIndex = mEvents.get(position).getInstanceEpochDay() - mFirstDay;
+            while (dayIndex < eventDayIndex && dayIndex < dayCount) {
+                mDayPositions[++dayIndex] = position;
+            }
+        }
+        while (dayIndex < dayCount) {
+            mDayPositions[++dayIndex] = mEvents.size();
+        }
+    }
+
+    /**
+     * Mark the days covered by the given events.
+     */
+    private void markDays(boolean[] days, List<CalendarEvent> events) {
+        TimeZone timeZone = TimeZone.getDefault();
+        for (CalendarEvent event : events) {
+            int first = Math.max(DayEventIndex.getFirstDay(event, timeZone) - mFirstDay, 0);
+            int last = (int) Math.min((long) DayEventIndex.getLastCoveredDay(event, timeZone) - mFirstDay, days.length - 1);
+            boolean recurring = event.getRecurrenceRule() != null;
+            for (int i = first; i <= last; i++) {
+                if (!recurring || DayEventIndex.getOccurrenceStart(event, mFirstDay + i, timeZone) != DayEventIndex.NO_OCCURRENCE) {
+                    days[i] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Mark the days holding instances of the events with the given ids.
+     */
+    private void markDays(boolean[] days, Set<Long> ids) {
+        for (int i = 0; i < days.length; i++) {
+            for (int position = mDayPositions[i]; position < mDayPositions[i + 1]; position++) {
+                CalendarEvent event = getSourceEvent(position);
+                if (!event.isPlaceholder() && ids.contains(event.getId())) {
+                    days[i] = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuild the instances of the affected days: instances with a removed id are dropped, unless
+     * an added event has the same id, in which case its instance takes their place. The other
+     * added events are appended to the days they cover. Days left empty get a placeholder.
+     * Must hold the lock.
+     *
+     * @return The change telling the agenda and weeks lists which positions changed.
+     */
+    private Events.EventsChanged updateDays(boolean[] affectedDays, Set<Long> removedIds, List<CalendarEvent> addedEvents) {
+        TimeZone timeZone = TimeZone.getDefault();
+        // the published version stays as it is, the next one is built aside
+        List<CalendarEvent> oldEvents = mEvents;
+        int[] oldPositions = mDayPositions;
+        int[] dayPositions = new int[oldPositions.length];
+        Map<Integer, List<CalendarEvent>> replacedDays = new HashMap<>();
+        int addedCount = addedEvents.size();
+        int[] addedFirstDays = new int[addedCount];
+        for (int a = 0; a < addedCount; a++) {
+            addedFirstDays[a] = DayEventIndex.getFirstDay(addedEvents.get(a), timeZone);
+        }
+
+        List<Events.AgendaRange> agendaRanges = new ArrayList<>();
+        List<Integer> weekPositions = new ArrayList<>();
+        int shift = 0;
+        for (int i = 0; i < affectedDays.length; i++) {
+            int start = oldPositions[i];
+            int end = oldPositions[i + 1];
+            dayPositions[i] = start + shift;
+            if (!affectedDays[i]) {
+                continue;
+            }
+
+            // day offset of the occurrence of each added event on that day, if any
+            int[] offsets = new int[addedCount];
+            for (int a = 0; a < addedCount; a++) {
+                int startDay = DayEventIndex.getOccurrenceStart(addedEvents.get(a), mFirstDay + i, timeZone);
+                offsets[a] = startDay != DayEventIndex.NO_OCCURRENCE ? startDay - addedFirstDays[a] : DayEventIndex.NO_OCCURRENCE;
+            }
+            boolean[] placed = new boolean[addedCount];
+            List<CalendarEvent> dayEvents = new ArrayList<>();
+            for (int position = start; position < end; position++) {
+                CalendarEvent instance = oldEvents.get(position);
+                if (instance.isPlaceholder()) {
+                    continue;
+                }
+                if (removedIds.contains(instance.getId())) {
+                    for (int a = 0; a < addedCount; a++) {
+                        if (!placed[a] && offsets[a] != DayEventIndex.NO_OCCURRENCE
+                                && addedEvents.get(a).getId() == instance.getId()) {
+                            dayEvents.add(createInstance(addedEvents.get(a), i, offsets[a]));
+                            placed[a] = true;
+                            break;
+                        }
+                    }
+                    continue;
+                }
+                dayEvents.add(instance);
+            }
+            for (int a = 0; a < addedCount; a++) {
+                if (!placed[a] && offsets[a] != DayEventIndex.NO_OCCURRENCE) {
+                    dayEvents.add(createInstance(addedEvents.get(a), i, offsets[a]));
+                }
+            }
+            boolean isShowBadgeForDay = false;
+            for (CalendarEvent instance : dayEvents) {
+                if (instance.getShowBadge()) {
+                    isShowBadgeForDay = true;
+                }
+            }
+            if (dayEvents.isEmpty()) {
+                dayEvents.add(createPlaceholder(i));
+            }
+            setShowBadge(i, isShowBadgeForDay);
+
+            replacedDays.put(i, dayEvents);
+            agendaRanges.add(new Events.AgendaRange(start + shift, end - start, dayEvents.size()));
+            shift += dayEvents.size() - (end - start);
+            if (weekPositions.isEmpty() || weekPositions.get(weekPositions.size() - 1) != i / 7) {
+                weekPositions.add(i / 7);
+            }
+        }
+        dayPositions[affectedDays.length] = oldPositions[affectedDays.length] + shift;
+        mDayPositions = dayPositions;
+        if (oldEvents instanceof LazyEventList) {
+            // the days left as they are keep being created from the index
+            mEvents = ((LazyEventList) oldEvents).replaceDays(dayPositions, replacedDays);
+        } else {
+            mEvents = new ArrayList<>(dayPositions[affectedDays.length]);
+            for (int i = 0; i < affectedDays.length; i++) {
+                List<CalendarEvent> dayEvents = replacedDays.get(i);
+                mEvents.addAll(dayEvents != null ? dayEvents : oldEvents.subList(oldPositions[i], oldPositions[i + 1]));
+            }
+        }
+
+        int[] weeks = new int[weekPositions.size()];
+        for (int w = 0; w < weeks.length; w++) {
+            weeks[w] = weekPositions.get(w);
+        }
+        publish();
+        return new Events.EventsChanged(mModel.getEvents(), agendaRanges, weeks);
+    }
+
+    /**
+     * Send a change to the views on the main thread, outside the lock so the views reading the
+     * manager don't wait for another update.
+     */
+    private void sendChange(Events.EventsChanged eventsChanged) {
+        if (eventsChanged.isEmpty()) {
+            return;
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            mBus.send(eventsChanged);
+        } else {
+            BackgroundExecutor.post(() -> mBus.send(eventsChanged));
+        }
+    }
+
+    /**
+     * Get the event the instance at a position is created from, without creating the instance
+     * when it isn't in memory.
+     */
+    private CalendarEvent getSourceEvent(int position) {
+        if (mEvents instanceof LazyEventList) {
+            return ((LazyEventList) mEvents).getSourceEvent(position);
+        }
+        CalendarEvent instance = mEvents.get(position);
+        return instance instanceof EventOccurrence ? ((EventOccurrence) instance).getEvent() : instance;
+    }
+
+    /**
+     * Set back the locale of a cancelled build, none if the calendar was never built.
+     */
+    private void restoreLocale(Locale locale) {
+        if (locale != null) {
+            setLocale(locale);
+            return;
+        }
+        mLocale = null;
+        mWeekdayFormatter = null;
+        mMonthHalfNameFormat = null;
+        mDateLabels = null;
     }
 
     private void setLocale(Locale locale) {
@@ -261,6 +854,7 @@ public class CalendarManager {
         setToday(Calendar.getInstance(mLocale));
         mWeekdayFormatter = new SimpleDateFormat(getContext().getString(R.string.day_name_format), mLocale);
         mMonthHalfNameFormat = new SimpleDateFormat(getContext().getString(R.string.month_half_name_format), locale);
+        mDateLabels = DateLabels.getInstance(getContext(), mLocale);
     }
 
     // endregion
@@ -0,0 +1,137 @@
+package com.github.tibolte.agendacalendarview;
+
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.models.IDayItem;
+import com.github.tibolte.agendacalendarview.models.IWeekItem;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A version of the calendar published by the CalendarManager: its weeks, days and events
+ * instances. The lists are read-only and keep their size and order once published, a build or an
+ * update publishes a new version, so a view reading one version always sees consistent lists.
+ * <p>
+ * The state of the days (badge, selection) is not part of a version: the day items, or the state
+ * kept by lazily built weeks, are shared by the versions of a same build and updated in place, an
+ * update announcing the changed days with an EventsChanged event. Lazily built weeks are cached
+ * under a lock, so a version can be read from any thread.
+ */
+public final class CalendarModel {
+
+    static final CalendarModel EMPTY = new CalendarModel(Collections.<IWeekItem>emptyList(), Collections.<IDayItem>emptyList(),
+            Collections.<CalendarEvent>emptyList(), Collections.<CalendarEvent>emptyList(), 0, new int[1]);
+
+    private final List<IWeekItem> mWeeks;
+    private final List<IDayItem> mDays;
+    private final List<CalendarEvent> mEvents;
+    private final List<CalendarEvent> mSourceEvents;
+    /**
+     * Epoch day of the first day of the calendar
+     */
+    private final int mFirstDay;
+    /**
+     * Position in mEvents of the first instance of each day, with one extra trailing entry
+     */
+    private final int[] mDayPositions;
+
+    // region Constructor
+
+    /**
+     * The lists must not be modified after that, they are only wrapped. Lazy weeks are already
+     * read-only.
+     */
+    CalendarModel(List<IWeekItem> weeks, List<IDayItem> days, List<CalendarEvent> events, List<CalendarEvent> sourceEvents, int firstDay, int[] dayPositions) {
+        this.mWeeks = weeks instanceof LazyWeekList ? weeks : Collections.unmodifiableList(weeks);
+        this.mDays = days instanceof LazyWeekList.Days ? days : Collections.unmodifiableList(days);
+        this.mEvents = Collections.unmodifiableList(events);
+        this.mSourceEvents = Collections.unmodifiableList(sourceEvents);
+        this.mFirstDay = firstDay;
+        this.mDayPositions = dayPositions;
+    }
+
+    // endregion
+
+    // region Public methods
+
+    public List<IWeekItem> getWeeks() {
+        return mWeeks;
+    }
+
+    public List<IDayItem> getDays() {
+        return mDays;
+    }
+
+    public List<CalendarEvent> getEvents() {
+        return mEvents;
+    }
+
+    public List<CalendarEvent> getSourceEvents() {
+        return mSourceEvents;
+    }
+
+    public int getFirstDay() {
+        return mFirstDay;
+    }
+
+    /**
+     * Find the day item of an epoch day.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The day item, null if the day is out of the calendar.
+     */
+    public IDayItem getDay(int epochDay) {
+        int dayIndex = epochDay - mFirstDay;
+        if (dayIndex < 0 || dayIndex >= mDays.size()) {
+            return null;
+        }
+        return mDays.get(dayIndex);
+    }
+
+    /**
+     * Find the week holding an epoch day, in constant time: the calendar starts on the first day
+     * of a week, and every week is 7 days long.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The position in the weeks, -1 if the day is out of the calendar.
+     */
+    public int getWeekPosition(int epochDay) {
+        int dayIndex = epochDay - mFirstDay;
+        if (dayIndex < 0 || dayIndex / 7 >= mWeeks.size()) {
+            return -1;
+        }
+        return dayIndex / 7;
+    }
+
+    /**
+     * Find the position in the events of the first instance of an epoch day, in constant time.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The position, -1 if the day is out of the calendar or has no instances.
+     */
+    public int getDayPosition(int epochDay) {
+        int dayIndex = epochDay - mFirstDay;
+        if (dayIndex < 0 || dayIndex >= mDayPositions.length - 1
+                || mDayPositions[dayIndex] == mDayPositions[dayIndex + 1]) {
+            return -1;
+        }
+        return mDayPositions[dayIndex];
+    }
+
+    // endregion
+
+    // region Package methods
+
+    int[] getDayPositions() {
+        return mDayPositions;
+    }
+
+    /**
+     * @return The lazily built weeks, null if the calendar is built eagerly.
+     */
+    LazyWeekList getLazyWeeks() {
+        return mWeeks instanceof LazyWeekList ? (LazyWeekList) mWeeks : null;
+    }
+
+    // endregion
+}
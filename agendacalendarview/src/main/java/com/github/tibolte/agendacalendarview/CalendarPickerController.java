@@ -8,7 +8,24 @@ import java.util.Calendar;
 public interface CalendarPickerController {
     void onDaySelected(IDayItem dayItem);
 
+    /**
+     * @param event The selected event, holding the day it was selected on. It is an
+     *              {@link com.github.tibolte.agendacalendarview.models.EventOccurrence}, whose
+     *              getEvent() returns the event given to the calendar.
+     */
     void onEventSelected(CalendarEvent event);
 
     void onScrollToDate(Calendar calendar);
+
+    /**
+     * Called on the main thread when the calendar built by
+     * {@link AgendaCalendarView#initAsync(java.util.List, Calendar, Calendar, java.util.Locale, CalendarPickerController, com.github.tibolte.agendacalendarview.render.EventRenderer[])}
+     * could not be built, the views then keep showing the previous calendar. The error is also
+     * logged.
+     *
+     * @param error The error thrown by the build, an IllegalArgumentException for wrong dates
+     *              for example.
+     */
+    default void onInitFailed(RuntimeException error) {
+    }
 }
@@ -0,0 +1,368 @@
+package com.github.tibolte.agendacalendarview;
+
+import com.github.tibolte.agendacalendarview.models.BaseCalendarEvent;
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.models.DayItem;
+import com.github.tibolte.agendacalendarview.models.EventOccurrence;
+import com.github.tibolte.agendacalendarview.models.RecurrenceRule;
+import com.github.tibolte.agendacalendarview.models.WeekItem;
+import com.github.tibolte.agendacalendarview.utils.DateHelper;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Binary snapshot of the events of a built calendar, so the next start can skip indexing the
+ * events again when they didn't change.
+ * The source events are stored by columns, followed by the position of the first instance of each
+ * day and, for each instance, the index of its source event (-1 for a placeholder) and its day
+ * offset. Only BaseCalendarEvent instances can be stored.
+ */
+class CalendarSnapshot {
+
+    private static final int MAGIC = 0x41435653;
+    private static final int FORMAT_VERSION = 1;
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int FLAG_ALL_DAY = 1;
+    private static final int FLAG_SHOW_BADGE = 1 << 1;
+    private static final int FLAG_HAS_START = 1 << 2;
+    private static final int FLAG_HAS_END = 1 << 3;
+    private static final int FLAG_RECURRING = 1 << 4;
+
+    // region Package methods
+
+    static void write(CalendarModel model, File file, long sourceVersion, Calendar minDate, Calendar maxDate, Locale locale) throws IOException {
+        List<CalendarEvent> sources = model.getSourceEvents();
+        List<CalendarEvent> instances = model.getEvents();
+        int[] dayPositions = model.getDayPositions();
+        for (CalendarEvent event : sources) {
+            if (event.getClass() != BaseCalendarEvent.class) {
+                throw new IllegalArgumentException("Only BaseCalendarEvent can be stored in a snapshot, not " + event.getClass().getName() + ".");
+            }
+        }
+
+        File tmp = new File(file.getPath() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeHeader(out, sourceVersion, minDate, maxDate, locale);
+
+            int count = sources.size();
+            out.writeInt(count);
+            for (CalendarEvent event : sources) {
+                out.writeLong(event.getId());
+            }
+            for (CalendarEvent event : sources) {
+                out.writeInt(event.getColor());
+            }
+            for (CalendarEvent event : sources) {
+                out.writeInt(event.getTextColor());
+            }
+            for (CalendarEvent event : sources) {
+                out.writeByte(getFlags(event));
+            }
+            for (CalendarEvent event : sources) {
+                out.writeLong(event.getStartTime() != null ? event.getStartTime().getTimeInMillis() : 0);
+            }
+            for (CalendarEvent event : sources) {
+                out.writeLong(event.getEndTime() != null ? event.getEndTime().getTimeInMillis() : 0);
+            }
+            for (CalendarEvent event : sources) {
+                writeString(out, event.getTitle());
+            }
+            for (CalendarEvent event : sources) {
+                writeString(out, event.getDescription());
+            }
+            for (CalendarEvent event : sources) {
+                writeString(out, event.getLocation());
+            }
+            for (CalendarEvent event : sources) {
+                writeString(out, ((BaseCalendarEvent) event).getDuration());
+            }
+            for (CalendarEvent event : sources) {
+                RecurrenceRule rule = event.getRecurrenceRule();
+                if (rule != null) {
+                    writeRule(out, rule);
+                }
+            }
+
+            // instances, by day
+            out.writeInt(dayPositions.length);
+            for (int position : dayPositions) {
+                out.writeInt(position);
+            }
+            out.writeInt(instances.size());
+            int[] sourceIndexes = indexSources(sources, instances);
+            for (int sourceIndex : sourceIndexes) {
+                out.writeInt(sourceIndex);
+            }
+            for (CalendarEvent instance : instances) {
+                out.writeInt(instance instanceof EventOccurrence ? ((EventOccurrence) instance).getDayOffset() : 0);
+            }
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Could not write " + file + ".");
+        }
+    }
+
+    /**
+     * Read a snapshot into a calendar manager.
+     *
+     * @return False if there's no snapshot matching the source version, the dates and the locale,
+     * the calendar then has to be built again.
+     */
+    static boolean read(CalendarManager calendarManager, File file, long sourceVersion, Calendar minDate, Calendar maxDate, Locale locale, CalendarEvent noEvent) throws IOException {
+        if (!file.exists()) {
+            return false;
+        }
+        FileInputStream in = new FileInputStream(file);
+        try {
+            FileChannel channel = in.getChannel();
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return false;
+            }
+            if (!readHeader(buffer, sourceVersion, minDate, maxDate, locale)) {
+                return false;
+            }
+
+            // each source event takes at least an id
+            int count = readCount(buffer, 8);
+            long[] ids = new long[count];
+            int[] colors = new int[count];
+            int[] textColors = new int[count];
+            byte[] flags = new byte[count];
+            long[] starts = new long[count];
+            long[] ends = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = buffer.getLong();
+            }
+            for (int i = 0; i < count; i++) {
+                colors[i] = buffer.getInt();
+            }
+            for (int i = 0; i < count; i++) {
+                textColors[i] = buffer.getInt();
+            }
+            buffer.get(flags);
+            for (int i = 0; i < count; i++) {
+                starts[i] = buffer.getLong();
+            }
+            for (int i = 0; i < count; i++) {
+                ends[i] = buffer.getLong();
+            }
+            String[] titles = readStrings(buffer, count);
+            String[] descriptions = readStrings(buffer, count);
+            String[] locations = readStrings(buffer, count);
+            String[] durations = readStrings(buffer, count);
+
+            List<CalendarEvent> sources = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Calendar startTime = null;
+                Calendar endTime = null;
+                if ((flags[i] & FLAG_HAS_START) != 0) {
+                    startTime = Calendar.getInstance();
+                    startTime.setTimeInMillis(starts[i]);
+                }
+                if ((flags[i] & FLAG_HAS_END) != 0) {
+                    endTime = Calendar.getInstance();
+                    endTime.setTimeInMillis(ends[i]);
+                }
+                BaseCalendarEvent event = new BaseCalendarEvent(titles[i], descriptions[i], locations[i], colors[i], textColors[i],
+                        startTime, endTime, (flags[i] & FLAG_ALL_DAY) != 0, ids[i], (flags[i] & FLAG_SHOW_BADGE) != 0);
+                event.setDuration(durations[i]);
+                if ((flags[i] & FLAG_RECURRING) != 0) {
+                    event.setRecurrenceRule(readRule(buffer));
+                }
+                sources.add(event);
+            }
+
+            int[] dayPositions = readInts(buffer, readCount(buffer, 4));
+            int instanceCount = readCount(buffer, 4);
+            int[] sourceIndexes = readInts(buffer, instanceCount);
+            int[] dayOffsets = readInts(buffer, instanceCount);
+
+            calendarManager.buildCal(minDate, maxDate, locale, new DayItem(), new WeekItem());
+            return calendarManager.restoreEvents(sources, noEvent, dayPositions, sourceIndexes, dayOffsets);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            // truncated or corrupted, counts included, built again by the caller
+            return false;
+        } finally {
+            in.close();
+        }
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private static void writeHeader(DataOutputStream out, long sourceVersion, Calendar minDate, Calendar maxDate, Locale locale) throws IOException {
+        out.writeLong(sourceVersion);
+        int[] range = getDayRange(minDate, maxDate);
+        out.writeInt(range[0]);
+        out.writeInt(range[1]);
+        writeString(out, locale.toString());
+        writeString(out, TimeZone.getDefault().getID());
+    }
+
+    private static boolean readHeader(ByteBuffer buffer, long sourceVersion, Calendar minDate, Calendar maxDate, Locale locale) {
+        int[] range = getDayRange(minDate, maxDate);
+        return buffer.getLong() == sourceVersion
+                && buffer.getInt() == range[0]
+                && buffer.getInt() == range[1]
+                && locale.toString().equals(readString(buffer))
+                && TimeZone.getDefault().getID().equals(readString(buffer));
+    }
+
+    /**
+     * The calendar only depends on the days of the dates, maxDate being exclusive.
+     */
+    private static int[] getDayRange(Calendar minDate, Calendar maxDate) {
+        return new int[]{
+                DateHelper.toEpochDay(minDate),
+                DateHelper.toEpochDay(maxDate.getTimeInMillis() - 60 * 1000, maxDate.getTimeZone())
+        };
+    }
+
+    private static int getFlags(CalendarEvent event) {
+        int flags = 0;
+        if (event.isAllDay()) {
+            flags |= FLAG_ALL_DAY;
+        }
+        if (event.getShowBadge()) {
+            flags |= FLAG_SHOW_BADGE;
+        }
+        if (event.getStartTime() != null) {
+            flags |= FLAG_HAS_START;
+        }
+        if (event.getEndTime() != null) {
+            flags |= FLAG_HAS_END;
+        }
+        if (event.getRecurrenceRule() != null) {
+            flags |= FLAG_RECURRING;
+        }
+        return flags;
+    }
+
+    /**
+     * Find the index of the source event of each instance, -1 for the placeholders.
+     */
+    private static int[] indexSources(List<CalendarEvent> sources, List<CalendarEvent> instances) {
+        Map<CalendarEvent, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < sources.size(); i++) {
+            indexes.put(sources.get(i), i);
+        }
+        int[] sourceIndexes = new int[instances.size()];
+        for (int i = 0; i < instances.size(); i++) {
+            CalendarEvent instance = instances.get(i);
+            Integer index = null;
+            if (!instance.isPlaceholder() && instance instanceof EventOccurrence) {
+                index = indexes.get(((EventOccurrence) instance).getEvent());
+            }
+            if (index == null && !instance.isPlaceholder()) {
+                throw new IllegalArgumentException("The event instances were not built from the source events.");
+            }
+            sourceIndexes[i] = index != null ? index : -1;
+        }
+        return sourceIndexes;
+    }
+
+    private static void writeRule(DataOutputStream out, RecurrenceRule rule) throws IOException {
+        out.writeByte(rule.getFrequency());
+        out.writeInt(rule.getInterval());
+        out.writeInt(rule.getCount());
+        out.writeInt(rule.getUntilDay());
+        out.writeInt(rule.getWeekDays());
+        out.writeByte(rule.getWeekStart());
+        int[] exceptionDays = rule.getExceptionDays();
+        out.writeInt(exceptionDays.length);
+        for (int day : exceptionDays) {
+            out.writeInt(day);
+        }
+    }
+
+    private static RecurrenceRule readRule(ByteBuffer buffer) {
+        int frequency = buffer.get();
+        int interval = buffer.getInt();
+        int count = buffer.getInt();
+        int untilDay = buffer.getInt();
+        int weekDays = buffer.getInt();
+        int weekStart = buffer.get();
+        int[] exceptionDays = readInts(buffer, readCount(buffer, 4));
+        return new RecurrenceRule(frequency, interval, count, untilDay, weekDays, weekStart, exceptionDays);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupted string length " + length + ".");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    private static String[] readStrings(ByteBuffer buffer, int count) {
+        String[] strings = new String[count];
+        for (int i = 0; i < count; i++) {
+            strings[i] = readString(buffer);
+        }
+        return strings;
+    }
+
+    /**
+     * Read the number of elements of an array, checked before the array is allocated.
+     *
+     * @param elementSize The minimum size of an element in the snapshot, in bytes.
+     * @throws IllegalArgumentException if the count is corrupted: negative, or more than the rest
+     *                                  of the snapshot can hold.
+     */
+    private static int readCount(ByteBuffer buffer, int elementSize) {
+        int count = buffer.getInt();
+        if (count < 0 || (long) count * elementSize > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupted count " + count + ".");
+        }
+        return count;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] ints = new int[count];
+        buffer.asIntBuffer().get(ints);
+        buffer.position(buffer.position() + count * 4);
+        return ints;
+    }
+
+    // endregion
+}
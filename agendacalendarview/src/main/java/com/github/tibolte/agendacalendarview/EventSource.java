@@ -0,0 +1,22 @@
+package com.github.tibolte.agendacalendarview;
+
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Source of the events of an AgendaCalendarView, queried by date range around the visible dates
+ * instead of loading all the events up front.
+ */
+public interface EventSource {
+
+    /**
+     * Get the events of a date range. Called on a background thread.
+     *
+     * @param start The first day of the range, at midnight.
+     * @param end   The day after the last day of the range, at midnight.
+     * @return The events happening at least partly in the range, each with a unique id.
+     */
+    List<CalendarEvent> getEvents(Calendar start, Calendar end);
+}
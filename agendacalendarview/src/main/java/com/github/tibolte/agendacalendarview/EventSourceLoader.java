@@ -0,0 +1,201 @@
+package com.github.tibolte.agendacalendarview;
+
+import android.os.Handler;
+import android.util.Log;
+
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.utils.DateHelper;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.Executor;
+
+/**
+ * Loads the events of an EventSource into the CalendarManager by chunks of days, around the
+ * visible dates. The neighbouring chunks are prefetched, and only a bounded number of chunks is
+ * kept loaded, the events of the least recently visible ones are removed from the calendar.
+ */
+class EventSourceLoader {
+
+    private static final String LOG_TAG = EventSourceLoader.class.getSimpleName();
+
+    /**
+     * Number of days queried at once.
+     */
+    static final int CHUNK_DAYS = 28;
+    /**
+     * Number of chunks loaded ahead on each side of the visible one.
+     */
+    static final int PREFETCH_CHUNKS = 1;
+    /**
+     * Number of chunks kept loaded.
+     */
+    static final int CACHE_SIZE = 12;
+
+    private final EventSource mEventSource;
+    private final CalendarManager mCalendarManager;
+    private final Executor mExecutor;
+    private final Handler mMainHandler;
+    private final TimeZone mTimeZone = TimeZone.getDefault();
+    /**
+     * Epoch day of the first day of the calendar, where the first chunk starts
+     */
+    private final int mFirstDay;
+    private final int mChunkCount;
+    /**
+     * Ids of the events loaded by each chunk, by chunk index, in access order
+     */
+    private final Map<Integer, long[]> mLoadedChunks = new LinkedHashMap<Integer, long[]>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, long[]> eldest) {
+            if (size() > CACHE_SIZE) {
+                unloadChunk(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+    /**
+     * Chunks being queried
+     */
+    private final Set<Integer> mPendingChunks = new HashSet<>();
+    /**
+     * Number of loaded chunks holding each event, by event id, as an event may cover several chunks
+     */
+    private final Map<Long, Integer> mEventRefs = new HashMap<>();
+    /**
+     * Set on the main thread, read by the queries still waiting to run, so they are skipped
+     */
+    private volatile boolean mCancelled;
+
+    // region Constructor
+
+    EventSourceLoader(EventSource eventSource, CalendarManager calendarManager, Executor executor, Handler mainHandler) {
+        this.mEventSource = eventSource;
+        this.mCalendarManager = calendarManager;
+        this.mExecutor = executor;
+        this.mMainHandler = mainHandler;
+        int dayCount = calendarManager.getDays().size();
+        this.mFirstDay = dayCount > 0 ? calendarManager.getDays().get(0).getEpochDay() : 0;
+        this.mChunkCount = (dayCount + CHUNK_DAYS - 1) / CHUNK_DAYS;
+    }
+
+    // endregion
+
+    // region Package methods
+
+    /**
+     * Load the events around a visible day, if not loaded yet. Must be called on the main thread.
+     *
+     * @param epochDay The visible day.
+     */
+    void onDayVisible(int epochDay) {
+        if (mCancelled || epochDay < mFirstDay) {
+            return;
+        }
+        int chunk = (epochDay - mFirstDay) / CHUNK_DAYS;
+        // the visible chunk is queried first
+        loadChunk(chunk);
+        for (int offset = 1; offset <= PREFETCH_CHUNKS; offset++) {
+            loadChunk(chunk + offset);
+            loadChunk(chunk - offset);
+        }
+        // and touched last, so it is the most recently used one, unloaded after its neighbours
+        mLoadedChunks.get(chunk);
+    }
+
+    /**
+     * Stop loading, the queries not started yet are skipped and the results of the running ones
+     * are dropped.
+     */
+    void cancel() {
+        mCancelled = true;
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private void loadChunk(int chunk) {
+        if (chunk < 0 || chunk >= mChunkCount) {
+            return;
+        }
+        if (mLoadedChunks.get(chunk) != null || mPendingChunks.contains(chunk)) {
+            return;
+        }
+        mPendingChunks.add(chunk);
+
+        final Calendar start = DateHelper.fromEpochDay(mFirstDay + chunk * CHUNK_DAYS, mTimeZone);
+        final Calendar end = DateHelper.fromEpochDay(mFirstDay + (chunk + 1) * CHUNK_DAYS, mTimeZone);
+        mExecutor.execute(() -> {
+            if (mCancelled) {
+                return;
+            }
+            List<CalendarEvent> events = null;
+            try {
+                events = mEventSource.getEvents(start, end);
+            } catch (RuntimeException e) {
+                Log.e(LOG_TAG, "Could not load the events from " + start.getTime() + " to " + end.getTime(), e);
+            }
+            final List<CalendarEvent> loaded = events;
+            mMainHandler.post(() -> onChunkLoaded(chunk, loaded));
+        });
+    }
+
+    private void onChunkLoaded(int chunk, List<CalendarEvent> events) {
+        if (mCancelled) {
+            return;
+        }
+        mPendingChunks.remove(chunk);
+        if (events == null) {
+            // failed, the chunk will be queried again when visible
+            return;
+        }
+
+        long[] ids = new long[events.size()];
+        List<CalendarEvent> added = new ArrayList<>();
+        for (int i = 0; i < events.size(); i++) {
+            CalendarEvent event = events.get(i);
+            ids[i] = event.getId();
+            Integer refs = mEventRefs.get(ids[i]);
+            if (refs == null) {
+                added.add(event);
+                mEventRefs.put(ids[i], 1);
+            } else {
+                mEventRefs.put(ids[i], refs + 1);
+            }
+        }
+        if (!added.isEmpty()) {
+            mCalendarManager.addEvents(added);
+        }
+        mLoadedChunks.put(chunk, ids);
+    }
+
+    private void unloadChunk(long[] ids) {
+        List<Long> removed = new ArrayList<>();
+        for (long id : ids) {
+            Integer refs = mEventRefs.get(id);
+            if (refs == null) {
+                continue;
+            }
+            if (refs == 1) {
+                mEventRefs.remove(id);
+                removed.add(id);
+            } else {
+                mEventRefs.put(id, refs - 1);
+            }
+        }
+        if (!removed.isEmpty()) {
+            mCalendarManager.removeEvents(removed);
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,174 @@
+package com.github.tibolte.agendacalendarview;
+
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.models.EventOccurrence;
+import com.github.tibolte.agendacalendarview.models.IDayItem;
+import com.github.tibolte.agendacalendarview.models.IWeekItem;
+import com.github.tibolte.agendacalendarview.models.PlaceholderEvent;
+import com.github.tibolte.agendacalendarview.utils.DayEventIndex;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.TimeZone;
+
+/**
+ * Read-only list of the event instances of the agenda, created on demand from the index of the
+ * events by day: an event, recurring or not, is stored once and its occurrences are only created
+ * for the positions being read. The days rebuilt by an incremental update hold their instances
+ * directly. Only a small window of recently read instances is kept in memory. The list is read by
+ * the views and the background diffs at once, so its cache is only accessed while holding its lock.
+ */
+class LazyEventList extends AbstractList<CalendarEvent> implements RandomAccess {
+
+    /**
+     * Number of instances kept in memory, a few screens of agenda rows.
+     */
+    static final int CACHE_SIZE = 128;
+
+    private final DayEventIndex mIndex;
+    private final TimeZone mTimeZone;
+    private final int mFirstDay;
+    /**
+     * Position of the first instance of each day, with one extra trailing entry, every day holding
+     * at least one instance
+     */
+    private final int[] mDayPositions;
+    /**
+     * Instances of the days replaced by an update, by day index, null for the days read from the
+     * index
+     */
+    private final CalendarEvent[][] mDayEvents;
+    private final CalendarEvent mPlaceholderTemplate;
+    /**
+     * Days and weeks the instances are linked to, null if they are built lazily
+     */
+    private final List<IDayItem> mDays;
+    private final List<IWeekItem> mWeeks;
+    /**
+     * Recently read instances, by position, in access order.
+     */
+    private final Map<Integer, CalendarEvent> mCache = new LinkedHashMap<Integer, CalendarEvent>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, CalendarEvent> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // region Constructor
+
+    /**
+     * @param dayPositions The position of the first instance of each day, with one extra trailing
+     *                     entry, a day without events holding a placeholder.
+     * @param days         The days to link the instances to, null not to link them.
+     * @param weeks        The weeks to link the instances to, null not to link them.
+     */
+    LazyEventList(DayEventIndex index, TimeZone timeZone, int firstDay, int[] dayPositions, CalendarEvent placeholderTemplate, List<IDayItem> days, List<IWeekItem> weeks) {
+        this(index, timeZone, firstDay, dayPositions, new CalendarEvent[dayPositions.length - 1][], placeholderTemplate, days, weeks);
+    }
+
+    private LazyEventList(DayEventIndex index, TimeZone timeZone, int firstDay, int[] dayPositions, CalendarEvent[][] dayEvents, CalendarEvent placeholderTemplate, List<IDayItem> days, List<IWeekItem> weeks) {
+        this.mIndex = index;
+        this.mTimeZone = timeZone;
+        this.mFirstDay = firstDay;
+        this.mDayPositions = dayPositions;
+        this.mDayEvents = dayEvents;
+        this.mPlaceholderTemplate = placeholderTemplate;
+        this.mDays = days;
+        this.mWeeks = weeks;
+    }
+
+    // endregion
+
+    // region Class - AbstractList
+
+    @Override
+    public synchronized CalendarEvent get(int position) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("Instance " + position + ", size " + size());
+        }
+        CalendarEvent instance = mCache.get(position);
+        if (instance == null) {
+            int dayIndex = getDayIndex(position);
+            int offset = position - mDayPositions[dayIndex];
+            if (mDayEvents[dayIndex] != null) {
+                return mDayEvents[dayIndex][offset];
+            }
+            instance = createInstance(dayIndex, offset);
+            mCache.put(position, instance);
+        }
+        return instance;
+    }
+
+    @Override
+    public int size() {
+        return mDayPositions[mDayPositions.length - 1];
+    }
+
+    // endregion
+
+    // region Package methods
+
+    /**
+     * Get the event an instance is created from, without creating the instance.
+     *
+     * @return The source event, the placeholder template for a placeholder.
+     */
+    synchronized CalendarEvent getSourceEvent(int position) {
+        int dayIndex = getDayIndex(position);
+        int offset = position - mDayPositions[dayIndex];
+        if (mDayEvents[dayIndex] != null) {
+            CalendarEvent instance = mDayEvents[dayIndex][offset];
+            return instance instanceof EventOccurrence ? ((EventOccurrence) instance).getEvent() : instance;
+        }
+        int epochDay = mFirstDay + dayIndex;
+        return mIndex.getEventCount(epochDay) > 0 ? mIndex.getEvent(epochDay, offset) : mPlaceholderTemplate;
+    }
+
+    /**
+     * Create the next version of the list, the instances of some days being replaced.
+     *
+     * @param dayPositions The day positions of the next version.
+     * @param replacedDays The instances of the replaced days, by day index.
+     * @return The list of the next version, this one is left as it is.
+     */
+    synchronized LazyEventList replaceDays(int[] dayPositions, Map<Integer, List<CalendarEvent>> replacedDays) {
+        CalendarEvent[][] dayEvents = mDayEvents.clone();
+        for (Map.Entry<Integer, List<CalendarEvent>> entry : replacedDays.entrySet()) {
+            dayEvents[entry.getKey()] = entry.getValue().toArray(new CalendarEvent[0]);
+        }
+        return new LazyEventList(mIndex, mTimeZone, mFirstDay, dayPositions, dayEvents, mPlaceholderTemplate, mDays, mWeeks);
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private int getDayIndex(int position) {
+        int dayIndex = Arrays.binarySearch(mDayPositions, position);
+        // every day holds an instance, so the positions are distinct
+        return dayIndex >= 0 ? dayIndex : -dayIndex - 2;
+    }
+
+    private CalendarEvent createInstance(int dayIndex, int offset) {
+        int epochDay = mFirstDay + dayIndex;
+        CalendarEvent instance;
+        if (mIndex.getEventCount(epochDay) == 0) {
+            instance = new PlaceholderEvent(mPlaceholderTemplate, epochDay);
+        } else {
+            CalendarEvent event = mIndex.getEvent(epochDay, offset);
+            int dayOffset = mIndex.getStartDay(epochDay, offset) - DayEventIndex.getFirstDay(event, mTimeZone);
+            instance = new EventOccurrence(event, epochDay, dayOffset);
+        }
+        if (mDays != null) {
+            instance.setDayReference(mDays.get(dayIndex));
+            instance.setWeekReference(mWeeks.get(dayIndex / 7));
+        }
+        return instance;
+    }
+
+    // endregion
+}
@@ -0,0 +1,142 @@
+package com.github.tibolte.agendacalendarview;
+
+import com.github.tibolte.agendacalendarview.models.IDayItem;
+import com.github.tibolte.agendacalendarview.models.IWeekItem;
+
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of weeks built on demand, with the parameters of the build which created it.
+ * Only a small window of recently used weeks is kept in memory, the state of the days (badge,
+ * selection) is kept aside so it survives when a week is built again. The list is read by the
+ * views and the background diffs at once, so its cache and the state of the days are only
+ * accessed while holding its lock.
+ */
+class LazyWeekList extends AbstractList<IWeekItem> implements RandomAccess {
+
+    /**
+     * Number of weeks kept in memory, enough for the visible rows of the calendar and of the
+     * agenda, with some margin on both sides.
+     */
+    static final int CACHE_SIZE = 32;
+
+    private final WeekFactory mWeekFactory;
+    private final int mSize;
+    /**
+     * Badge flags, by day index.
+     */
+    private final boolean[] mBadges;
+    /**
+     * Index of the selected day, -1 if none.
+     */
+    private int mSelectedDay = -1;
+    /**
+     * Recently used weeks, by position, in access order.
+     */
+    private final Map<Integer, IWeekItem> mCache = new LinkedHashMap<Integer, IWeekItem>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, IWeekItem> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    // region Constructor
+
+    LazyWeekList(WeekFactory weekFactory, int size) {
+        this.mWeekFactory = weekFactory;
+        this.mSize = size;
+        this.mBadges = new boolean[size * 7];
+    }
+
+    // endregion
+
+    // region Class - AbstractList
+
+    @Override
+    public synchronized IWeekItem get(int position) {
+        if (position < 0 || position >= mSize) {
+            throw new IndexOutOfBoundsException("Week " + position + ", size " + mSize);
+        }
+        IWeekItem weekItem = mCache.get(position);
+        if (weekItem == null) {
+            weekItem = mWeekFactory.buildWeek(position);
+            List<IDayItem> dayItems = weekItem.getDayItems();
+            for (int c = 0; c < dayItems.size(); c++) {
+                int dayIndex = position * 7 + c;
+                dayItems.get(c).setShowBadge(mBadges[dayIndex]);
+                dayItems.get(c).setSelected(dayIndex == mSelectedDay);
+            }
+            mCache.put(position, weekItem);
+        }
+        return weekItem;
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    // endregion
+
+    // region Package methods
+
+    synchronized void setShowBadge(int dayIndex, boolean showBadge) {
+        mBadges[dayIndex] = showBadge;
+        IDayItem dayItem = getCachedDay(dayIndex);
+        if (dayItem != null) {
+            dayItem.setShowBadge(showBadge);
+        }
+    }
+
+    synchronized void setSelectedDay(int dayIndex) {
+        IDayItem previous = getCachedDay(mSelectedDay);
+        if (previous != null) {
+            previous.setSelected(false);
+        }
+        mSelectedDay = dayIndex;
+        IDayItem selected = getCachedDay(dayIndex);
+        if (selected != null) {
+            selected.setSelected(true);
+        }
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private IDayItem getCachedDay(int dayIndex) {
+        if (dayIndex < 0) {
+            return null;
+        }
+        IWeekItem weekItem = mCache.get(dayIndex / 7);
+        return weekItem != null ? weekItem.getDayItems().get(dayIndex % 7) : null;
+    }
+
+    // endregion
+
+    /**
+     * Read-only view of the days of a LazyWeekList.
+     */
+    static class Days extends AbstractList<IDayItem> implements RandomAccess {
+
+        private final LazyWeekList mWeeks;
+
+        Days(LazyWeekList weeks) {
+            this.mWeeks = weeks;
+        }
+
+        @Override
+        public IDayItem get(int index) {
+            return mWeeks.get(index / 7).getDayItems().get(index % 7);
+        }
+
+        @Override
+        public int size() {
+            return mWeeks.size() * 7;
+        }
+    }
+}
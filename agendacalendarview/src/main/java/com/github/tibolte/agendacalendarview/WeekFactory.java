@@ -0,0 +1,103 @@
+package com.github.tibolte.agendacalendarview;
+
+import com.github.tibolte.agendacalendarview.models.IDayItem;
+import com.github.tibolte.agendacalendarview.models.IWeekItem;
+import com.github.tibolte.agendacalendarview.utils.DateHelper;
+import com.github.tibolte.agendacalendarview.utils.DateLabels;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds the weeks of one build of the calendar. The parameters of the build are copied, so weeks
+ * built lazily for a version are not affected by a later build of the manager, and weeks can be
+ * built from any thread.
+ */
+final class WeekFactory {
+
+    private final CalendarManager mCalendarManager;
+    private final long mMinDate;
+    private final Locale mLocale;
+    private final IDayItem mCleanDay;
+    private final IWeekItem mCleanWeek;
+    private final DateLabels mDateLabels;
+    private final int mTodayEpochDay;
+
+    // region Constructor
+
+    WeekFactory(CalendarManager calendarManager, Date minDate, Locale locale, IDayItem cleanDay, IWeekItem cleanWeek) {
+        this.mCalendarManager = calendarManager;
+        this.mMinDate = minDate.getTime();
+        this.mLocale = locale;
+        this.mCleanDay = cleanDay.copy();
+        this.mCleanWeek = cleanWeek.copy();
+        this.mDateLabels = calendarManager.getDateLabels();
+        this.mTodayEpochDay = DateHelper.toEpochDay(calendarManager.getToday());
+    }
+
+    // endregion
+
+    // region Package methods
+
+    /**
+     * Build the week at the given position, counted from the week of minDate.
+     */
+    IWeekItem buildWeek(int position) {
+        Calendar weekCounter = Calendar.getInstance(mLocale);
+        weekCounter.setTimeInMillis(mMinDate);
+        weekCounter.add(Calendar.WEEK_OF_YEAR, position);
+        return createWeek(weekCounter, position);
+    }
+
+    IWeekItem createWeek(Calendar weekCounter, int position) {
+        Date date = weekCounter.getTime();
+        IWeekItem weekItem = mCleanWeek.copy();
+        weekItem.setWeekIndex(position);
+        weekItem.setWeekInYear(weekCounter.get(Calendar.WEEK_OF_YEAR));
+        weekItem.setYear(weekCounter.get(Calendar.YEAR));
+        weekItem.setDate(date);
+        weekItem.setMonth(weekCounter.get(Calendar.MONTH));
+        weekItem.setLabel(mDateLabels.getMonthShortName(weekCounter.get(Calendar.MONTH)));
+        weekItem.setDayItems(getDayCells(weekCounter)); // gather days for the built week
+        return weekItem;
+    }
+
+    Calendar getFirstDayOfWeek(Calendar startCal) {
+        Calendar cal = Calendar.getInstance(mLocale);
+        cal.setTime(startCal.getTime());
+
+        int firstDayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
+        int offset = cal.getFirstDayOfWeek() - firstDayOfWeek;
+        if (offset > 0) {
+            offset -= 7;
+        }
+        cal.add(Calendar.DATE, offset);
+        return cal;
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private List<IDayItem> getDayCells(Calendar startCal) {
+        Calendar cal = getFirstDayOfWeek(startCal);
+        List<IDayItem> dayItems = new ArrayList<>();
+
+        for (int c = 0; c < 7; c++) {
+            IDayItem dayItem = mCleanDay.copy();
+            dayItem.buildDayItemFromCal(cal, mCalendarManager);
+            // the manager may have been built again since, keep the labels and day of this build
+            dayItem.setMonth(mDateLabels.getMonthShortName(cal.get(Calendar.MONTH)));
+            dayItem.setToday(dayItem.getEpochDay() == mTodayEpochDay);
+            dayItems.add(dayItem);
+            cal.add(Calendar.DATE, 1);
+        }
+
+        return dayItems;
+    }
+
+    // endregion
+}
@@ -1,124 +1,358 @@
 package com.github.tibolte.agendacalendarview.agenda;
 
+import com.github.tibolte.agendacalendarview.CalendarManager;
+import com.github.tibolte.agendacalendarview.CalendarModel;
+import com.github.tibolte.agendacalendarview.R;
 import com.github.tibolte.agendacalendarview.models.CalendarEvent;
-import com.github.tibolte.agendacalendarview.render.DefaultEventRenderer;
+import com.github.tibolte.agendacalendarview.models.EventOccurrence;
+import com.github.tibolte.agendacalendarview.models.IDayItem;
 import com.github.tibolte.agendacalendarview.render.EventRenderer;
+import com.github.tibolte.agendacalendarview.utils.BackgroundExecutor;
+import com.github.tibolte.agendacalendarview.utils.Events;
+import com.github.tibolte.agendacalendarview.utils.ViewPrefetcher;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.BaseAdapter;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-import se.emilsjolander.stickylistheaders.StickyListHeadersAdapter;
-
 /**
- * Adapter for the agenda, implements StickyListHeadersAdapter.
- * Days as sections and CalendarEvents as list items.
+ * Adapter for the agenda, days as sections and CalendarEvents as list items. Each EventRenderer
+ * has its own view type, the day headers are drawn by the AgendaListView.
  */
-public class AgendaAdapter extends BaseAdapter implements StickyListHeadersAdapter {
+public class AgendaAdapter extends RecyclerView.Adapter<AgendaAdapter.EventViewHolder> {
+
+    /**
+     * Mixed with the day of a placeholder, so its id differs from the ids of the events
+     */
+    private static final long PLACEHOLDER_SEED = 0x5DEECE66DL;
 
-    private List<CalendarEvent> mEvents = new ArrayList<>();
-    private List<EventRenderer<?>> mRenderers = new ArrayList<>();
+    private final CalendarManager mCalendarManager;
+    /**
+     * The events shown, never modified: an update replaces the list
+     */
+    private List<CalendarEvent> mEvents = Collections.emptyList();
+    /**
+     * The version of the calendar mEvents come from, null if they were given by the app, used to
+     * find the position of a day
+     */
+    private CalendarModel mModel;
+    private final EventRendererRegistry mRenderers = new EventRendererRegistry();
     private int mCurrentDayColor;
+    /**
+     * Rows inflated ahead of time, null if none
+     */
+    private ViewPrefetcher mViewPrefetcher;
+    /**
+     * Incremented by every update, so the result of an older diff is dropped
+     */
+    private int mUpdateGeneration;
+    /**
+     * True while a diff is computed
+     */
+    private boolean mDiffPending;
 
     // region Constructor
 
-    public AgendaAdapter(int currentDayTextColor) {
+    public AgendaAdapter(CalendarManager calendarManager, int currentDayTextColor) {
+        this.mCalendarManager = calendarManager;
         this.mCurrentDayColor = currentDayTextColor;
+        setHasStableIds(true);
     }
 
     // endregion
 
     // region Public methods
 
+    /**
+     * Replace the events. The difference with the current ones is computed on a background
+     * thread, then only the changed rows are notified, and the list keeps its position.
+     *
+     * @param events The new list of events instances.
+     */
     public void updateEvents(List<CalendarEvent> events) {
-        this.mEvents.clear();
-        this.mEvents.addAll(events);
-        notifyDataSetChanged();
+        final List<CalendarEvent> oldEvents = mEvents;
+        final CalendarModel model = getModel(events);
+        // the events of a model never change, other lists are copied
+        final List<CalendarEvent> newEvents = model != null ? events : Collections.unmodifiableList(new ArrayList<>(events));
+        final int generation = ++mUpdateGeneration;
+        if (oldEvents.isEmpty() || !hasObservers()) {
+            mDiffPending = false;
+            mEvents = newEvents;
+            mModel = model;
+            notifyDataSetChanged();
+            return;
+        }
+
+        mDiffPending = true;
+        BackgroundExecutor.execute(() -> {
+            AgendaUpdate update = AgendaUpdate.diff(oldEvents, newEvents);
+            BackgroundExecutor.post(() -> {
+                // a newer update was applied meanwhile
+                if (generation != mUpdateGeneration) {
+                    return;
+                }
+                mDiffPending = false;
+                mEvents = newEvents;
+                mModel = model;
+                update.dispatchUpdatesTo(this);
+            });
+        });
     }
 
-    // endregion
+    /**
+     * Apply an incremental update, only the replaced ranges are notified.
+     *
+     * @param events        The updated list of events instances, kept by the adapter, so it must
+     *                      not be modified.
+     * @param eventsChanged The ranges which changed.
+     */
+    public void updateEvents(List<CalendarEvent> events, Events.EventsChanged eventsChanged) {
+        boolean diffPending = mDiffPending;
+        mUpdateGeneration++;
+        mDiffPending = false;
+        mEvents = events;
+        mModel = getModel(events);
+        if (diffPending) {
+            // the ranges don't cover the changes of the dropped diff
+            notifyDataSetChanged();
+            return;
+        }
+        AgendaUpdate.fromRanges(eventsChanged.getAgendaRanges()).dispatchUpdatesTo(this);
+    }
 
-    // region Interface - StickyListHeadersAdapter
+    public CalendarEvent getItem(int position) {
+        return mEvents.get(position);
+    }
 
-    @Override
+    /**
+     * Bind the header of the day of a position.
+     *
+     * @param position    The position of a row of the day.
+     * @param convertView A header to bind again, null to inflate one.
+     * @param parent      The list.
+     * @return The header.
+     */
     public View getHeaderView(int position, View convertView, ViewGroup parent) {
         AgendaHeaderView agendaHeaderView = (AgendaHeaderView) convertView;
+        if (agendaHeaderView == null && mViewPrefetcher != null) {
+            agendaHeaderView = (AgendaHeaderView) mViewPrefetcher.obtain(R.layout.view_agenda_header);
+        }
         if (agendaHeaderView == null) {
             agendaHeaderView = AgendaHeaderView.inflate(parent);
         }
-        agendaHeaderView.setDay(getItem(position).getInstanceDay(), mCurrentDayColor, getItem(position).getDayReference().getShowBadge());
+        CalendarEvent event = getItem(position);
+        // the calendar may have been built again over other dates while the list shows the events
+        IDayItem dayItem = mCalendarManager.getDay(event);
+        agendaHeaderView.setDay(mCalendarManager, event.getInstanceDay(), mCurrentDayColor, dayItem != null && dayItem.getShowBadge());
         return agendaHeaderView;
     }
 
-    @Override
+    /**
+     * @return The id of the day of a position, the rows of a day share their header.
+     */
     public long getHeaderId(int position) {
-        return mEvents.get(position).getInstanceDay().getTimeInMillis();
+        return mEvents.get(position).getInstanceEpochDay();
+    }
+
+    /**
+     * @return The number of view types, one per renderer and one for the default renderer.
+     */
+    public int getViewTypeCount() {
+        return mRenderers.getViewTypeCount();
+    }
+
+    /**
+     * Add a renderer, with its own view type. An event is rendered by the renderer of the most
+     * specific type it is an instance of. Renderers must be added before the events are shown.
+     */
+    public void addEventRenderer(@NonNull final EventRenderer<?> renderer) {
+        mRenderers.add(renderer);
+    }
+
+    /**
+     * Take the rows of a prefetcher before inflating new ones.
+     */
+    public void setViewPrefetcher(ViewPrefetcher viewPrefetcher) {
+        mViewPrefetcher = viewPrefetcher;
     }
 
     // endregion
 
-    // region Class - BaseAdapter
+    // region Package methods
 
-    @Override
-    public int getCount() {
-        return mEvents.size();
+    ViewPrefetcher getViewPrefetcher() {
+        return mViewPrefetcher;
     }
 
-    @Override
-    public CalendarEvent getItem(int position) {
-        return mEvents.get(position);
+    /**
+     * @return The layout of the rows of a view type.
+     */
+    int getViewTypeLayout(int viewType) {
+        return mRenderers.getRenderer(viewType).getEventLayout();
     }
 
-    @Override
-    public long getItemId(int position) {
-        return position;
+    /**
+     * Find the first row of a day: a lookup in the table of the model when the events come from
+     * one, else a binary search, the events being sorted by day.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @return The position, -1 if the day has no rows.
+     */
+    int getDayPosition(int epochDay) {
+        if (mModel != null) {
+            return mModel.getDayPosition(epochDay);
+        }
+        int low = 0;
+        int high = mEvents.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (mEvents.get(middle).getInstanceEpochDay() < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low < mEvents.size() && mEvents.get(low).getInstanceEpochDay() == epochDay) {
+            return low;
+        }
+        return -1;
     }
 
-    private EventRenderer getEventRenderer(CalendarEvent event) {
-        EventRenderer eventRenderer = new DefaultEventRenderer();
+    /**
+     * Get the id of the row of an instance, which stays the same across updates: an event has a
+     * row on each day it covers, and each day without events has one placeholder. Events sharing
+     * an id on a day, like events leaving it unset, are told apart by their order in the day.
+     *
+     * @param events   The rows.
+     * @param position The position of the row.
+     */
+    static long getStableId(List<CalendarEvent> events, int position) {
+        CalendarEvent event = events.get(position);
+        long day = event.getInstanceEpochDay();
+        if (event.isPlaceholder()) {
+            return mix(day ^ PLACEHOLDER_SEED);
+        }
+        long id = mix(event.getId() * 0x9E3779B97F4A7C15L + day);
+        int duplicateIndex = getDuplicateIndex(events, position);
+        return duplicateIndex == 0 ? id : mix(id + duplicateIndex);
+    }
 
-        // Search for the correct event renderer
-        for (EventRenderer renderer : mRenderers) {
-            if(event.getClass().isAssignableFrom(renderer.getRenderType())) {
-                eventRenderer = renderer;
+    /**
+     * @return The number of rows of the same day before a row, having the same event id.
+     */
+    static int getDuplicateIndex(List<CalendarEvent> events, int position) {
+        CalendarEvent event = events.get(position);
+        int duplicateIndex = 0;
+        for (int i = position - 1; i >= 0; i--) {
+            CalendarEvent previous = events.get(i);
+            if (previous.getInstanceEpochDay() != event.getInstanceEpochDay()) {
                 break;
             }
+            if (!previous.isPlaceholder() && previous.getId() == event.getId()) {
+                duplicateIndex++;
+            }
         }
-        return eventRenderer;
+        return duplicateIndex;
     }
 
+    // endregion
+
+    // region Class - RecyclerView.Adapter
+
     @Override
-    public int getViewTypeCount() {
-        return mRenderers.size();
+    public int getItemCount() {
+        return mEvents.size();
     }
 
     @Override
-    public int getItemViewType(int position) {
-        final CalendarEvent event = getItem(position);
-        return mRenderers.indexOf(getEventRenderer(event));
+    public long getItemId(int position) {
+        return getStableId(mEvents, position);
     }
 
     @Override
-    public View getView(int position, View convertView, ViewGroup parent) {
-        final CalendarEvent event = getItem(position);
-        EventRenderer eventRenderer = getEventRenderer(event);
+    public int getItemViewType(int position) {
+        return mRenderers.getViewType(getRenderedEvent(getItem(position)));
+    }
 
-        if (convertView == null || ((int)convertView.getTag()) == eventRenderer.getEventLayout()) {
-            convertView = LayoutInflater.from(parent.getContext())
+    @Override
+    public EventViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        EventRenderer<?> eventRenderer = mRenderers.getRenderer(viewType);
+        View view = mViewPrefetcher != null ? mViewPrefetcher.obtain(eventRenderer.getEventLayout()) : null;
+        if (view == null) {
+            view = LayoutInflater.from(parent.getContext())
                     .inflate(eventRenderer.getEventLayout(), parent, false);
-            convertView.setTag(eventRenderer.getEventLayout());
         }
-        eventRenderer.render(convertView, event);
-        return convertView;
+        return new EventViewHolder(view, eventRenderer);
     }
 
-    public void addEventRenderer(@NonNull final EventRenderer<?> renderer) {
-        mRenderers.add(renderer);
+    @Override
+    public void onBindViewHolder(EventViewHolder holder, int position) {
+        onBindViewHolder(holder, position, Collections.emptyList());
+    }
+
+    @Override
+    public void onBindViewHolder(EventViewHolder holder, int position, List<Object> payloads) {
+        final CalendarEvent occurrence = getItem(position);
+        final CalendarEvent event = getRenderedEvent(occurrence);
+        holder.mEventRenderer.bind(holder.itemView, holder.mHolder, event, occurrence, payloads);
+    }
+
+    // endregion
+
+    // region Private methods
+
+    /**
+     * @return The current version of the calendar if the events are its instances, else null.
+     */
+    private CalendarModel getModel(List<CalendarEvent> events) {
+        CalendarModel model = mCalendarManager.getModel();
+        return model.getEvents() == events ? model : null;
+    }
+
+    /**
+     * Occurrences are rendered from their source event, placeholders from the template they share.
+     */
+    private CalendarEvent getRenderedEvent(CalendarEvent event) {
+        if (event instanceof EventOccurrence) {
+            return ((EventOccurrence) event).getEvent();
+        }
+        return event;
+    }
+
+    /**
+     * Spread the bits of a value over the 64 bits of the id (SplitMix64 finalizer).
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // endregion
+
+    // region Class - EventViewHolder
+
+    /**
+     * Row of an event, rendered by the renderer of its view type.
+     */
+    static class EventViewHolder extends RecyclerView.ViewHolder {
+        private final EventRenderer mEventRenderer;
+        /**
+         * Created by the renderer for the row, null if it keeps nothing
+         */
+        private final Object mHolder;
+
+        EventViewHolder(View itemView, EventRenderer<?> eventRenderer) {
+            super(itemView);
+            mEventRenderer = eventRenderer;
+            mHolder = eventRenderer.createHolder(itemView);
+        }
     }
 
     // endregion
@@ -9,7 +9,7 @@ import android.view.ViewGroup;
 import android.widget.LinearLayout;
 
 /**
- * List item view for the StickyHeaderListView of the agenda view
+ * List item view for the AgendaListView of the agenda view
  */
 public class AgendaEventView extends LinearLayout {
     public static AgendaEventView inflate(ViewGroup parent) {
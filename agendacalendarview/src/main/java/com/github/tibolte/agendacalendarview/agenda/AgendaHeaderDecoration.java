@@ -0,0 +1,189 @@
+package com.github.tibolte.agendacalendarview.agenda;
+
+import android.graphics.Canvas;
+import android.util.LruCache;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayDeque;
+
+/**
+ * Draws the day headers of the agenda over the left margin of the rows: each day's header is
+ * aligned with its first row, and the header of the top day stays pinned until the next day
+ * pushes it up. Headers are bound once per day and kept while they may be shown again, the
+ * headers dropped are bound again for other days instead of being inflated.
+ */
+class AgendaHeaderDecoration extends RecyclerView.ItemDecoration {
+
+    /**
+     * Bound headers kept, a few screens of days
+     */
+    private static final int MAX_CACHED_HEADERS = 32;
+    /**
+     * Dropped headers kept to be bound again, more than the headers shown at once
+     */
+    private static final int MAX_POOLED_HEADERS = 8;
+
+    private final AgendaAdapter mAdapter;
+    /**
+     * Detached headers, given back to the adapter to be bound to another day
+     */
+    private final ArrayDeque<View> mPool = new ArrayDeque<>();
+    /**
+     * Bound and measured headers by header id, the dropped ones go to the pool
+     */
+    private final LruCache<Long, View> mHeaders = new LruCache<Long, View>(MAX_CACHED_HEADERS) {
+        @Override
+        protected void entryRemoved(boolean evicted, Long key, View oldValue, View newValue) {
+            if (newValue == null && mPool.size() < MAX_POOLED_HEADERS) {
+                mPool.push(oldValue);
+            }
+        }
+    };
+    /**
+     * Drops the headers of the days whose rows changed, as they may be shown differently, like
+     * with another badge
+     */
+    private final RecyclerView.AdapterDataObserver mObserver = new RecyclerView.AdapterDataObserver() {
+        @Override
+        public void onChanged() {
+            mHeaders.evictAll();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            invalidate(positionStart, positionStart + itemCount);
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            invalidate(positionStart, positionStart + itemCount);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            invalidate(positionStart, positionStart + itemCount);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            // the days around the removed rows may have lost some of them
+            invalidate(positionStart - 1, positionStart + 1);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            invalidate(fromPosition, fromPosition + itemCount);
+            invalidate(toPosition, toPosition + itemCount);
+        }
+    };
+
+    // region Constructor
+
+    AgendaHeaderDecoration(AgendaAdapter adapter) {
+        mAdapter = adapter;
+        adapter.registerAdapterDataObserver(mObserver);
+    }
+
+    // endregion
+
+    // region Package methods
+
+    /**
+     * Stop following the adapter, once the decoration is removed.
+     */
+    void release() {
+        mAdapter.unregisterAdapterDataObserver(mObserver);
+        mHeaders.evictAll();
+        mPool.clear();
+    }
+
+    // endregion
+
+    // region Class - RecyclerView.ItemDecoration
+
+    @Override
+    public void onDrawOver(Canvas canvas, RecyclerView parent, RecyclerView.State state) {
+        int childCount = parent.getChildCount();
+        int top = parent.getPaddingTop();
+        boolean stickyDrawn = false;
+        for (int i = 0; i < childCount; i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position == RecyclerView.NO_POSITION || position >= mAdapter.getItemCount()) {
+                continue;
+            }
+            long headerId = mAdapter.getHeaderId(position);
+            // the first row shown carries the header of the top day
+            boolean sticky = !stickyDrawn;
+            stickyDrawn = true;
+            if (!sticky && position > 0 && mAdapter.getHeaderId(position - 1) == headerId) {
+                continue;
+            }
+
+            View header = getHeader(parent, position, headerId);
+            int headerTop = (int) (child.getTop() + child.getTranslationY());
+            if (sticky) {
+                headerTop = Math.max(headerTop, top);
+                // pushed up by the first row of the next day
+                View next = findNextDayChild(parent, i, headerId);
+                if (next != null) {
+                    headerTop = Math.min(headerTop, (int) (next.getTop() + next.getTranslationY()) - header.getHeight());
+                }
+            }
+
+            canvas.save();
+            canvas.translate(parent.getPaddingLeft(), headerTop);
+            header.draw(canvas);
+            canvas.restore();
+        }
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private View getHeader(RecyclerView parent, int position, long headerId) {
+        View header = mHeaders.get(headerId);
+        if (header != null) {
+            return header;
+        }
+        header = mAdapter.getHeaderView(position, mPool.poll(), parent);
+        int width = parent.getWidth() - parent.getPaddingLeft() - parent.getPaddingRight();
+        header.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        header.layout(0, 0, header.getMeasuredWidth(), header.getMeasuredHeight());
+        mHeaders.put(headerId, header);
+        return header;
+    }
+
+    /**
+     * Drop the headers of the days of a range of positions, clamped to the adapter.
+     */
+    private void invalidate(int start, int end) {
+        int itemCount = mAdapter.getItemCount();
+        long lastHeaderId = Long.MIN_VALUE;
+        for (int position = Math.max(start, 0); position < Math.min(end, itemCount); position++) {
+            long headerId = mAdapter.getHeaderId(position);
+            if (headerId != lastHeaderId) {
+                mHeaders.remove(headerId);
+                lastHeaderId = headerId;
+            }
+        }
+    }
+
+    private View findNextDayChild(RecyclerView parent, int index, long headerId) {
+        for (int i = index + 1; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position != RecyclerView.NO_POSITION && position < mAdapter.getItemCount()
+                    && mAdapter.getHeaderId(position) != headerId) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    // endregion
+}
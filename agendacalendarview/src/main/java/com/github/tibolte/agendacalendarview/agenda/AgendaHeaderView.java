@@ -3,6 +3,7 @@ package com.github.tibolte.agendacalendarview.agenda;
 import com.github.tibolte.agendacalendarview.CalendarManager;
 import com.github.tibolte.agendacalendarview.R;
 import com.github.tibolte.agendacalendarview.utils.DateHelper;
+import com.github.tibolte.agendacalendarview.utils.DateLabels;
 
 import android.content.Context;
 import android.content.res.Resources;
@@ -14,11 +15,10 @@ import android.view.ViewGroup;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 
 /**
- * Header view for the StickyHeaderListView of the agenda view
+ * Header view of the days of the agenda view, drawn by the AgendaListView
  */
 public class AgendaHeaderView extends LinearLayout {
 
@@ -44,14 +44,14 @@ public class AgendaHeaderView extends LinearLayout {
 
     // region Public methods
 
-    public void setDay(Calendar day, int currentDayTextColor, boolean showBadge) {
+    public void setDay(CalendarManager calendarManager, Calendar day, int currentDayTextColor, boolean showBadge) {
         TextView txtDayOfMonth = (TextView) findViewById(R.id.view_agenda_day_of_month);
         TextView txtDayOfWeek = (TextView) findViewById(R.id.view_agenda_day_of_week);
         View circleView = findViewById(R.id.view_day_circle_selected);
 
-        Calendar today = CalendarManager.getInstance().getToday();
+        Calendar today = calendarManager.getToday();
 
-        SimpleDateFormat dayWeekFormatter =  new SimpleDateFormat(getContext().getString(R.string.day_name_format), CalendarManager.getInstance().getLocale());
+        DateLabels dateLabels = calendarManager.getDateLabels();
 
         txtDayOfMonth.setTextColor(getResources().getColor(R.color.calendar_text_default));
         txtDayOfWeek.setTextColor(getResources().getColor(R.color.calendar_text_default));
@@ -70,8 +70,8 @@ public class AgendaHeaderView extends LinearLayout {
             circleView.setVisibility(INVISIBLE);
         }
 
-        txtDayOfMonth.setText(String.valueOf(day.get(Calendar.DAY_OF_MONTH)));
-        txtDayOfWeek.setText(dayWeekFormatter.format(day.getTime()));
+        txtDayOfMonth.setText(dateLabels.getDayNumber(day.get(Calendar.DAY_OF_MONTH)));
+        txtDayOfWeek.setText(dateLabels.getWeekdayName(day.get(Calendar.DAY_OF_WEEK)));
     }
 
     // endregion
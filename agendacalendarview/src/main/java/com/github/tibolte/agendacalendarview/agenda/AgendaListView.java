@@ -1,34 +1,88 @@
 package com.github.tibolte.agendacalendarview.agenda;
 
-import com.github.tibolte.agendacalendarview.CalendarManager;
-import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.R;
 import com.github.tibolte.agendacalendarview.utils.DateHelper;
+import com.github.tibolte.agendacalendarview.utils.ViewPrefetcher;
 
 import android.content.Context;
 import android.util.AttributeSet;
+import android.view.View;
 
-import java.util.Calendar;
-import java.util.List;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DividerItemDecoration;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
-import se.emilsjolander.stickylistheaders.StickyListHeadersListView;
+import java.util.Calendar;
 
 /**
- * StickyListHeadersListView to scroll chronologically through events.
+ * RecyclerView to scroll chronologically through events, the day of the top rows stays pinned as
+ * a sticky header.
  */
-public class AgendaListView extends StickyListHeadersListView {
+public class AgendaListView extends RecyclerView {
+
+    /**
+     * Views kept in the pool of each renderer, a fast scroll recycles more rows than the default
+     */
+    private static final int MAX_RECYCLED_VIEWS = 12;
+
+    private AgendaHeaderDecoration mHeaderDecoration;
+    private OnItemClickListener mOnItemClickListener;
+    private OnStickyHeaderChangedListener mOnStickyHeaderChangedListener;
+    /**
+     * Header id of the day pinned at the top
+     */
+    private long mStickyHeaderId = NO_ID;
 
     // region Constructors
 
     public AgendaListView(Context context) {
         super(context);
+        init(context);
     }
 
     public AgendaListView(Context context, AttributeSet attrs) {
         super(context, attrs);
+        init(context);
     }
 
     public AgendaListView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
+        init(context);
+    }
+
+    // endregion
+
+    // region Class - RecyclerView
+
+    @Override
+    public void setAdapter(Adapter adapter) {
+        if (mHeaderDecoration != null) {
+            removeItemDecoration(mHeaderDecoration);
+            mHeaderDecoration.release();
+            mHeaderDecoration = null;
+        }
+        mStickyHeaderId = NO_ID;
+        super.setAdapter(adapter);
+        if (adapter instanceof AgendaAdapter) {
+            AgendaAdapter agendaAdapter = (AgendaAdapter) adapter;
+            // every renderer has its own view type, so its own pool, filled with the rows
+            // inflated ahead of time
+            ViewPrefetcher viewPrefetcher = agendaAdapter.getViewPrefetcher();
+            for (int viewType = 0; viewType < agendaAdapter.getViewTypeCount(); viewType++) {
+                getRecycledViewPool().setMaxRecycledViews(viewType, MAX_RECYCLED_VIEWS);
+                if (viewPrefetcher != null) {
+                    viewPrefetcher.seed(this, viewType, agendaAdapter.getViewTypeLayout(viewType), MAX_RECYCLED_VIEWS);
+                }
+            }
+            mHeaderDecoration = new AgendaHeaderDecoration(agendaAdapter);
+            addItemDecoration(mHeaderDecoration);
+        }
+    }
+
+    @Override
+    public AgendaAdapter getAdapter() {
+        return (AgendaAdapter) super.getAdapter();
     }
 
     // endregion
@@ -36,18 +90,100 @@ public class AgendaListView extends StickyListHeadersListView {
     // region Public methods
 
     public void scrollToCurrentDate(Calendar today) {
-        List<CalendarEvent> events = CalendarManager.getInstance().getEvents();
+        // the events shown by the adapter, the positions refer to them
+        AgendaAdapter adapter = getAdapter();
+        int todayEpochDay = DateHelper.toEpochDay(today);
+
+        int toIndex = adapter != null ? adapter.getDayPosition(todayEpochDay) : -1;
+
+        final int finalToIndex = Math.max(toIndex, 0);
+        post(() -> ((LinearLayoutManager) getLayoutManager()).scrollToPositionWithOffset(finalToIndex, 0));
+    }
+
+    public int getFirstVisiblePosition() {
+        return ((LinearLayoutManager) getLayoutManager()).findFirstVisibleItemPosition();
+    }
+
+    public void setOnItemClickListener(OnItemClickListener onItemClickListener) {
+        mOnItemClickListener = onItemClickListener;
+    }
 
-        int toIndex = 0;
-        for (int i = 0; i < events.size(); i++) {
-            if (DateHelper.sameDate(today, events.get(i).getInstanceDay())) {
-                toIndex = i;
-                break;
+    public void setOnStickyHeaderChangedListener(OnStickyHeaderChangedListener onStickyHeaderChangedListener) {
+        mOnStickyHeaderChangedListener = onStickyHeaderChangedListener;
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private void init(Context context) {
+        LinearLayoutManager layoutManager = new LinearLayoutManager(context);
+        // rows coming into view are bound ahead, between frames
+        layoutManager.setItemPrefetchEnabled(true);
+        setLayoutManager(layoutManager);
+        setHasFixedSize(true);
+
+        DividerItemDecoration divider = new DividerItemDecoration(context, DividerItemDecoration.VERTICAL);
+        divider.setDrawable(ContextCompat.getDrawable(context, R.drawable.agenda_divider));
+        addItemDecoration(divider);
+
+        addOnChildAttachStateChangeListener(new OnChildAttachStateChangeListener() {
+            @Override
+            public void onChildViewAttachedToWindow(View view) {
+                view.setOnClickListener(v -> {
+                    int position = getChildAdapterPosition(v);
+                    if (mOnItemClickListener != null && position != NO_POSITION) {
+                        mOnItemClickListener.onItemClick(AgendaListView.this, v, position, getChildItemId(v));
+                    }
+                });
+            }
+
+            @Override
+            public void onChildViewDetachedFromWindow(View view) {
+                view.setOnClickListener(null);
+            }
+        });
+
+        addOnScrollListener(new OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                updateStickyHeader();
             }
+        });
+    }
+
+    private void updateStickyHeader() {
+        AgendaAdapter adapter = getAdapter();
+        int position = getFirstVisiblePosition();
+        if (adapter == null || position == NO_POSITION || position >= adapter.getItemCount()) {
+            return;
         }
+        long headerId = adapter.getHeaderId(position);
+        if (headerId != mStickyHeaderId) {
+            mStickyHeaderId = headerId;
+            if (mOnStickyHeaderChangedListener != null) {
+                mOnStickyHeaderChangedListener.onStickyHeaderChanged(this, position, headerId);
+            }
+        }
+    }
+
+    // endregion
+
+    // region Interfaces
+
+    public interface OnItemClickListener {
+        void onItemClick(AgendaListView listView, View view, int position, long id);
+    }
 
-        final int finalToIndex = toIndex;
-        post(()->setSelection(finalToIndex));
+    public interface OnStickyHeaderChangedListener {
+        /**
+         * Called when the day pinned at the top of the list changes.
+         *
+         * @param listView The list.
+         * @param position The first visible position, a row of that day.
+         * @param headerId The header id of the day.
+         */
+        void onStickyHeaderChanged(AgendaListView listView, int position, long headerId);
     }
 
     // endregion
@@ -0,0 +1,162 @@
+package com.github.tibolte.agendacalendarview.agenda;
+
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.models.EventOccurrence;
+import com.github.tibolte.agendacalendarview.utils.Events;
+
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Difference between two versions of the agenda list, notified to the adapter as changed, inserted
+ * and removed rows, so the list only binds those and keeps its position. Rows are matched on the
+ * event id and the epoch day of the instance.
+ */
+class AgendaUpdate {
+
+    /**
+     * Set when computed by DiffUtil
+     */
+    private DiffUtil.DiffResult mDiffResult;
+    /**
+     * Set when built from the ranges of an incremental update
+     */
+    private List<Events.AgendaRange> mAgendaRanges;
+
+    // region Constructors
+
+    private AgendaUpdate() {
+    }
+
+    /**
+     * Compute the difference between two lists, long for big lists, so not on the main thread.
+     */
+    static AgendaUpdate diff(final List<CalendarEvent> oldEvents, final List<CalendarEvent> newEvents) {
+        AgendaUpdate update = new AgendaUpdate();
+        update.mDiffResult = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+            @Override
+            public int getOldListSize() {
+                return oldEvents.size();
+            }
+
+            @Override
+            public int getNewListSize() {
+                return newEvents.size();
+            }
+
+            @Override
+            public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                return sameItem(oldEvents, oldPosition, newEvents, newPosition);
+            }
+
+            @Override
+            public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                return sameContents(oldEvents.get(oldPosition), newEvents.get(newPosition));
+            }
+        }, false);
+        return update;
+    }
+
+    /**
+     * Build the update of the ranges replaced by the CalendarManager, no need to compare the lists.
+     */
+    static AgendaUpdate fromRanges(List<Events.AgendaRange> agendaRanges) {
+        AgendaUpdate update = new AgendaUpdate();
+        update.mAgendaRanges = agendaRanges;
+        return update;
+    }
+
+    // endregion
+
+    // region Package methods
+
+    /**
+     * Notify the adapter of the rows which changed, its events must already be replaced.
+     */
+    void dispatchUpdatesTo(RecyclerView.Adapter<?> adapter) {
+        if (mDiffResult != null) {
+            mDiffResult.dispatchUpdatesTo(adapter);
+            return;
+        }
+        // ranges are given in the updated list, so in order each one is at its current position
+        for (Events.AgendaRange range : mAgendaRanges) {
+            int position = range.getPosition();
+            int removed = range.getRemovedCount();
+            int inserted = range.getInsertedCount();
+            int changed = Math.min(removed, inserted);
+            if (changed > 0) {
+                adapter.notifyItemRangeChanged(position, changed);
+            }
+            if (removed > changed) {
+                adapter.notifyItemRangeRemoved(position + changed, removed - changed);
+            } else if (inserted > changed) {
+                adapter.notifyItemRangeInserted(position + changed, inserted - changed);
+            }
+        }
+    }
+
+    /**
+     * Compare the rows the same way as their stable ids: the day, the event id, and the order
+     * among the events of the day sharing that id.
+     */
+    static boolean sameItem(List<CalendarEvent> oldEvents, int oldPosition, List<CalendarEvent> newEvents, int newPosition) {
+        CalendarEvent oldEvent = oldEvents.get(oldPosition);
+        CalendarEvent newEvent = newEvents.get(newPosition);
+        if (oldEvent.getInstanceEpochDay() != newEvent.getInstanceEpochDay()
+                || oldEvent.isPlaceholder() != newEvent.isPlaceholder()) {
+            return false;
+        }
+        // a day has a single placeholder
+        return oldEvent.isPlaceholder() || oldEvent.getId() == newEvent.getId()
+                && AgendaAdapter.getDuplicateIndex(oldEvents, oldPosition) == AgendaAdapter.getDuplicateIndex(newEvents, newPosition);
+    }
+
+    // endregion
+
+    // region Private methods
+
+    /**
+     * Compare what the renderers show of two instances: the same occurrence of the same source
+     * event, else the fields of CalendarEvent.
+     */
+    private static boolean sameContents(CalendarEvent oldEvent, CalendarEvent newEvent) {
+        if (oldEvent == newEvent) {
+            return true;
+        }
+        if (oldEvent instanceof EventOccurrence && newEvent instanceof EventOccurrence) {
+            EventOccurrence oldOccurrence = (EventOccurrence) oldEvent;
+            EventOccurrence newOccurrence = (EventOccurrence) newEvent;
+            if (oldOccurrence.getEvent() == newOccurrence.getEvent()) {
+                return oldOccurrence.getDayOffset() == newOccurrence.getDayOffset();
+            }
+        }
+        // the renderer is chosen from the class of the source event
+        return getRenderedClass(oldEvent) == getRenderedClass(newEvent)
+                && equal(oldEvent.getTitle(), newEvent.getTitle())
+                && equal(oldEvent.getDescription(), newEvent.getDescription())
+                && equal(oldEvent.getLocation(), newEvent.getLocation())
+                && oldEvent.getColor() == newEvent.getColor()
+                && oldEvent.getTextColor() == newEvent.getTextColor()
+                && oldEvent.isAllDay() == newEvent.isAllDay()
+                && oldEvent.getShowBadge() == newEvent.getShowBadge()
+                && sameTime(oldEvent.getStartTime(), newEvent.getStartTime())
+                && sameTime(oldEvent.getEndTime(), newEvent.getEndTime());
+    }
+
+    private static Class<?> getRenderedClass(CalendarEvent event) {
+        return event instanceof EventOccurrence ? ((EventOccurrence) event).getEvent().getClass() : event.getClass();
+    }
+
+    private static boolean sameTime(Calendar a, Calendar b) {
+        return a == null ? b == null : b != null && a.getTimeInMillis() == b.getTimeInMillis();
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // endregion
+}
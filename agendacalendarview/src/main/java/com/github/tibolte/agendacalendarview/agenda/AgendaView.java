@@ -23,6 +23,12 @@ import rx.Subscription;
 
 public class AgendaView extends FrameLayout {
 
+    private CalendarManager mCalendarManager;
+    /**
+     * Bus of the interactions with the views (touches, clicked day), owned by the enclosing view,
+     * while the manager's bus, shared with other views, only carries the changes of the data
+     */
+    private BusProvider mBus = new BusProvider();
     private AgendaListView mAgendaListView;
     private View mShadowView;
     private boolean enablePlaceholder = true;
@@ -46,13 +52,20 @@ public class AgendaView extends FrameLayout {
 
     // region Class - View
 
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        if (mCalendarManager != null && subscriptions.isEmpty()) {
+            subscribe();
+        }
+    }
+
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
 
-        for (Subscription sub: subscriptions) {
-            sub.unsubscribe();
-        }
+        unsubscribe();
     }
 
     @Override
@@ -61,8 +74,73 @@ public class AgendaView extends FrameLayout {
 
         mAgendaListView = (AgendaListView) findViewById(R.id.agenda_listview);
         mShadowView = findViewById(R.id.view_shadow);
+    }
+
+    @Override
+    public boolean dispatchTouchEvent(MotionEvent event) {
+        int eventaction = event.getAction();
+
+        switch (eventaction) {
+            case MotionEvent.ACTION_DOWN:
+                // if the user touches the listView, we put it back to the top
+                translateList(0);
+                mBus.send(new Events.AgendaListViewTouchedEvent());
+                break;
+            default:
+                break;
+        }
+
+        return super.dispatchTouchEvent(event);
+    }
+
+    // endregion
+
+    // region Public methods
+
+    /**
+     * Show the calendar of a manager, listening to its events instead of the previous one's.
+     */
+    public void setCalendarManager(CalendarManager calendarManager) {
+        mCalendarManager = calendarManager;
+        subscribe();
+    }
+
+    /**
+     * Share the bus of the interactions with the other views of an AgendaCalendarView.
+     */
+    public void setBus(BusProvider bus) {
+        if (bus == null) {
+            throw new IllegalArgumentException("bus is null.");
+        }
+        mBus = bus;
+        if (mCalendarManager != null) {
+            subscribe();
+        }
+    }
 
-        Subscription sub = BusProvider.getInstance().toObserverable()
+    public AgendaListView getAgendaListView() {
+        return mAgendaListView;
+    }
+
+    public void translateList(int targetY) {
+        if (targetY != getTranslationY()) {
+            ObjectAnimator mover = ObjectAnimator.ofFloat(this, "translationY", targetY);
+            mover.setDuration(150);
+            mover.start();
+        }
+    }
+
+    public void enablePlaceholderForCalendar(boolean enable) {
+        this.enablePlaceholder = enable;
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private void subscribe() {
+        unsubscribe();
+        subscriptions.add(mBus.toObserverable()
                 .subscribe(event -> {
                     if (event instanceof Events.DayClickedEvent) {
                         Events.DayClickedEvent clickedEvent = (Events.DayClickedEvent) event;
@@ -70,9 +148,13 @@ public class AgendaView extends FrameLayout {
                     } else if (event instanceof Events.CalendarScrolledEvent) {
                         int offset = (int) (3 * getResources().getDimension(R.dimen.day_cell_height));
                         translateList(offset);
-                    } else if (event instanceof Events.EventsFetched) {
+                    }
+                }));
+        Subscription sub = mCalendarManager.getBus().toObserverable()
+                .subscribe(event -> {
+                    if (event instanceof Events.EventsFetched) {
                         if (getAgendaListView().getAdapter() != null)
-                            ((AgendaAdapter) getAgendaListView().getAdapter()).updateEvents(CalendarManager.getInstance().getEvents());
+                            ((AgendaAdapter) getAgendaListView().getAdapter()).updateEvents(mCalendarManager.getEvents());
 
                         getViewTreeObserver().addOnGlobalLayoutListener(
                                 new ViewTreeObserver.OnGlobalLayoutListener() {
@@ -89,7 +171,7 @@ public class AgendaView extends FrameLayout {
                                                 setLayoutParams(layoutParams);
                                             }
 
-                                            getAgendaListView().scrollToCurrentDate(CalendarManager.getInstance().getToday());
+                                            getAgendaListView().scrollToCurrentDate(mCalendarManager.getToday());
 
                                             getViewTreeObserver().removeGlobalOnLayoutListener(this);
                                         }
@@ -97,48 +179,23 @@ public class AgendaView extends FrameLayout {
                                 }
 
                         );
+                    } else if (event instanceof Events.EventsChanged) {
+                        if (getAgendaListView().getAdapter() != null) {
+                            Events.EventsChanged eventsChanged = (Events.EventsChanged) event;
+                            ((AgendaAdapter) getAgendaListView().getAdapter()).updateEvents(eventsChanged.getEvents(), eventsChanged);
+                        }
                     } else if (event instanceof Events.ForecastFetched) {
-                        ((AgendaAdapter) getAgendaListView().getAdapter()).updateEvents(CalendarManager.getInstance().getEvents());
+                        ((AgendaAdapter) getAgendaListView().getAdapter()).updateEvents(mCalendarManager.getEvents());
                     }
                 });
         subscriptions.add(sub);
     }
 
-    @Override
-    public boolean dispatchTouchEvent(MotionEvent event) {
-        int eventaction = event.getAction();
-
-        switch (eventaction) {
-            case MotionEvent.ACTION_DOWN:
-                // if the user touches the listView, we put it back to the top
-                translateList(0);
-                BusProvider.getInstance().send(new Events.AgendaListViewTouchedEvent());
-                break;
-            default:
-                break;
-        }
-
-        return super.dispatchTouchEvent(event);
-    }
-
-    // endregion
-
-    // region Public methods
-
-    public AgendaListView getAgendaListView() {
-        return mAgendaListView;
-    }
-
-    public void translateList(int targetY) {
-        if (targetY != getTranslationY()) {
-            ObjectAnimator mover = ObjectAnimator.ofFloat(this, "translationY", targetY);
-            mover.setDuration(150);
-            mover.start();
+    private void unsubscribe() {
+        for (Subscription sub: subscriptions) {
+            sub.unsubscribe();
         }
-    }
-
-    public void enablePlaceholderForCalendar(boolean enable) {
-        this.enablePlaceholder = enable;
+        subscriptions.clear();
     }
 
     // endregion
@@ -0,0 +1,94 @@
+package com.github.tibolte.agendacalendarview.agenda;
+
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.render.DefaultEventRenderer;
+import com.github.tibolte.agendacalendarview.render.EventRenderer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renderers of the agenda and their view types: each added renderer has its own view type, in the
+ * order they were added, and the default renderer takes the last one. The renderer of an event
+ * class is resolved once, then read from a map, as the type is asked for every bound row.
+ */
+class EventRendererRegistry {
+
+    private final List<EventRenderer<?>> mRenderers = new ArrayList<>();
+    /**
+     * Class of the events each renderer renders, read once from the renderer
+     */
+    private final List<Class<?>> mRenderTypes = new ArrayList<>();
+    /**
+     * Renders the events no renderer was added for
+     */
+    private final EventRenderer<?> mDefaultRenderer = new DefaultEventRenderer();
+    /**
+     * View type by class of rendered event, filled as the classes are met
+     */
+    private final Map<Class<?>, Integer> mViewTypes = new HashMap<>();
+
+    // region Package methods
+
+    void add(EventRenderer<?> renderer) {
+        mRenderers.add(renderer);
+        mRenderTypes.add(renderer.getRenderType());
+        // a class may now resolve to the added renderer
+        mViewTypes.clear();
+    }
+
+    /**
+     * @return The number of view types, one per renderer and one for the default renderer.
+     */
+    int getViewTypeCount() {
+        return mRenderers.size() + 1;
+    }
+
+    /**
+     * Find the view type of an event: the renderer of the most specific type the event is an
+     * instance of, else the default renderer.
+     *
+     * @param event The rendered event.
+     * @return The view type.
+     */
+    int getViewType(CalendarEvent event) {
+        Class<?> eventClass = event.getClass();
+        Integer viewType = mViewTypes.get(eventClass);
+        if (viewType == null) {
+            viewType = resolveViewType(eventClass);
+            mViewTypes.put(eventClass, viewType);
+        }
+        return viewType;
+    }
+
+    /**
+     * @return The renderer of a view type.
+     */
+    EventRenderer<?> getRenderer(int viewType) {
+        return viewType < mRenderers.size() ? mRenderers.get(viewType) : mDefaultRenderer;
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private int resolveViewType(Class<?> eventClass) {
+        int viewType = mRenderers.size();
+        for (int i = 0; i < mRenderTypes.size(); i++) {
+            Class<?> renderType = mRenderTypes.get(i);
+            if (!renderType.isAssignableFrom(eventClass)) {
+                continue;
+            }
+            // a subclass is more specific, the first added wins between equal types
+            if (viewType == mRenderers.size() || (renderType != mRenderTypes.get(viewType)
+                    && mRenderTypes.get(viewType).isAssignableFrom(renderType))) {
+                viewType = i;
+            }
+        }
+        return viewType;
+    }
+
+    // endregion
+}
@@ -1,6 +1,7 @@
 package com.github.tibolte.agendacalendarview.calendar;
 
 import com.github.tibolte.agendacalendarview.CalendarManager;
+import com.github.tibolte.agendacalendarview.CalendarModel;
 import com.github.tibolte.agendacalendarview.R;
 import com.github.tibolte.agendacalendarview.calendar.weekslist.WeekListView;
 import com.github.tibolte.agendacalendarview.calendar.weekslist.WeeksAdapter;
@@ -9,7 +10,9 @@ import com.github.tibolte.agendacalendarview.models.IDayItem;
 import com.github.tibolte.agendacalendarview.models.IWeekItem;
 import com.github.tibolte.agendacalendarview.utils.BusProvider;
 import com.github.tibolte.agendacalendarview.utils.DateHelper;
+import com.github.tibolte.agendacalendarview.utils.DateLabels;
 import com.github.tibolte.agendacalendarview.utils.Events;
+import com.github.tibolte.agendacalendarview.utils.ViewPrefetcher;
 
 import android.animation.ValueAnimator;
 import android.content.Context;
@@ -21,7 +24,6 @@ import android.view.ViewTreeObserver;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
@@ -36,6 +38,22 @@ import rx.Subscription;
 public class CalendarView extends LinearLayout {
 
     private static final String LOG_TAG = CalendarView.class.getSimpleName();
+    /**
+     * Default size of the pool of week rows, kept when fewer rows are prefetched
+     */
+    private static final int MIN_RECYCLED_WEEKS = 5;
+
+    /**
+     * The manager of the calendar shown, null until init
+     */
+    private CalendarManager mCalendarManager;
+    /**
+     * Bus of the interactions with the views (clicked day, scrolls), owned by the enclosing view,
+     * while the manager's bus, shared with other views, only carries the changes of the data
+     */
+    private BusProvider mBus = new BusProvider();
+    private int mDayTextColor, mCurrentDayTextColor, mPastDayTextColor;
+    private List<CalendarEvent> mEventList;
 
     /**
      * Top of the calendar view layout, the week days list
@@ -49,6 +67,10 @@ public class CalendarView extends LinearLayout {
      * The adapter for the weeks list
      */
     private WeeksAdapter mWeeksAdapter;
+    /**
+     * Week rows inflated ahead of time, null if none
+     */
+    private ViewPrefetcher mViewPrefetcher;
     /**
      * The current highlighted day in blue
      */
@@ -90,6 +112,19 @@ public class CalendarView extends LinearLayout {
         return mListViewWeeks;
     }
 
+    /**
+     * Share the bus of the interactions with the other views of an AgendaCalendarView.
+     */
+    public void setBus(BusProvider bus) {
+        if (bus == null) {
+            throw new IllegalArgumentException("bus is null.");
+        }
+        mBus = bus;
+        if (mCalendarManager != null) {
+            subscribe();
+        }
+    }
+
     // region Class - View
 
     @Override
@@ -121,27 +156,16 @@ public class CalendarView extends LinearLayout {
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
 
-        Subscription sub = BusProvider.getInstance().toObserverable()
-                .subscribe(event -> {
-                    if (event instanceof Events.CalendarScrolledEvent) {
-                        expandCalendarView();
-                    } else if (event instanceof Events.AgendaListViewTouchedEvent) {
-                        collapseCalendarView();
-                    } else if (event instanceof Events.DayClickedEvent) {
-                        Events.DayClickedEvent clickedEvent = (Events.DayClickedEvent) event;
-                        updateSelectedDay(clickedEvent.getCalendar(), clickedEvent.getDay());
-                    }
-                });
-        subscriptions.add(sub);
+        if (mCalendarManager != null && subscriptions.isEmpty()) {
+            subscribe();
+        }
     }
 
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
 
-        for (Subscription sub: subscriptions) {
-            sub.unsubscribe();
-        }
+        unsubscribe();
     }
 
     // endregion
@@ -149,13 +173,22 @@ public class CalendarView extends LinearLayout {
     // region Public methods
 
     public void init(CalendarManager calendarManager, int dayTextColor, int currentDayTextColor, int pastDayTextColor, List<CalendarEvent> eventList) {
+        if (calendarManager != mCalendarManager) {
+            // the selected day belongs to the previous calendar
+            mSelectedDay = null;
+        }
+        mCalendarManager = calendarManager;
+        mDayTextColor = dayTextColor;
+        mCurrentDayTextColor = currentDayTextColor;
+        mPastDayTextColor = pastDayTextColor;
+        mEventList = eventList;
+
         Calendar today = calendarManager.getToday();
         Locale locale = calendarManager.getLocale();
-        SimpleDateFormat weekDayFormatter = calendarManager.getWeekdayFormatter();
         List<IWeekItem> weeks = calendarManager.getWeeks();
 
-        setUpHeader(today, weekDayFormatter, locale);
-        setUpAdapter(today, weeks, dayTextColor, currentDayTextColor, pastDayTextColor, eventList);
+        setUpHeader(calendarManager.getDateLabels(), locale);
+        subscribe();
         scrollToDate(today, weeks);
     }
 
@@ -165,23 +198,30 @@ public class CalendarView extends LinearLayout {
      * @param calendarEvent The event for the selected position in the agenda listview.
      */
     public void scrollToDate(final CalendarEvent calendarEvent) {
-        mListViewWeeks.post(()->scrollToPosition(updateSelectedDay(calendarEvent.getInstanceDay(), calendarEvent.getDayReference())));
+        mListViewWeeks.post(() -> {
+            IDayItem dayItem = mCalendarManager.getDay(calendarEvent);
+            // the event may be out of the calendar, or of a calendar being built again
+            if (dayItem == null || !isShowingCurrentWeeks()) {
+                return;
+            }
+            scrollToPosition(updateSelectedDay(dayItem));
+        });
     }
 
     public void scrollToDate(Calendar today, List<IWeekItem> weeks) {
-        Integer currentWeekIndex = null;
+        int currentWeekIndex = getWeekPosition(DateHelper.toEpochDay(today), weeks);
 
-        for (int c = 0; c < weeks.size(); c++) {
-            if (DateHelper.sameWeek(today, weeks.get(c))) {
-                currentWeekIndex = c;
-                break;
-            }
+        if (currentWeekIndex >= 0) {
+            mListViewWeeks.post(() -> scrollToPosition(currentWeekIndex));
         }
+    }
 
-        if (currentWeekIndex != null) {
-            final Integer finalCurrentWeekIndex = currentWeekIndex;
-            mListViewWeeks.post(() -> scrollToPosition(finalCurrentWeekIndex));
-        }
+    /**
+     * Take the week rows of a prefetcher before inflating new ones, set before the events are
+     * fetched.
+     */
+    public void setViewPrefetcher(ViewPrefetcher viewPrefetcher) {
+        mViewPrefetcher = viewPrefetcher;
     }
 
     public void setBackgroundColor(int color) {
@@ -192,6 +232,33 @@ public class CalendarView extends LinearLayout {
 
     // region Private methods
 
+    /**
+     * Find the week of a day. The weeks of the calendar are found from the first day of the
+     * calendar, other lists are searched.
+     *
+     * @return The position of the week, -1 if no week holds the day.
+     */
+    private int getWeekPosition(int epochDay, List<IWeekItem> weeks) {
+        CalendarModel model = mCalendarManager.getModel();
+        if (weeks == model.getWeeks()) {
+            return model.getWeekPosition(epochDay);
+        }
+        for (int c = 0; c < weeks.size(); c++) {
+            if (DateHelper.sameWeek(epochDay, weeks.get(c))) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return False while the weeks list shows no weeks or the weeks of a previous build, its
+     * positions don't match the current weeks until the adapter is updated.
+     */
+    private boolean isShowingCurrentWeeks() {
+        return mWeeksAdapter != null && mWeeksAdapter.getWeeksList() == mCalendarManager.getWeeks();
+    }
+
     private void scrollToPosition(int targetPosition) {
         LinearLayoutManager layoutManager = ((LinearLayoutManager) mListViewWeeks.getLayoutManager());
         layoutManager.scrollToPosition(targetPosition);
@@ -199,39 +266,76 @@ public class CalendarView extends LinearLayout {
 
     private void updateItemAtPosition(int position) {
         WeeksAdapter weeksAdapter = (WeeksAdapter) mListViewWeeks.getAdapter();
-        weeksAdapter.notifyItemChanged(position);
+        weeksAdapter.notifyItemChanged(position, WeeksAdapter.WeekChange.SELECTION);
     }
 
     /**
-     * Creates a new adapter if necessary and sets up its parameters.
+     * Listen to the interactions with the views, and to the changes of the calendar manager.
      */
-    private void setUpAdapter(Calendar today, List<IWeekItem> weeks, int dayTextColor, int currentDayTextColor, int pastDayTextColor, List<CalendarEvent> events) {
-        Subscription sub = BusProvider.getInstance().toObserverable()
+    private void subscribe() {
+        unsubscribe();
+        subscriptions.add(mBus.toObserverable()
+                .subscribe(event -> {
+                    if (event instanceof Events.CalendarScrolledEvent) {
+                        expandCalendarView();
+                    } else if (event instanceof Events.AgendaListViewTouchedEvent) {
+                        collapseCalendarView();
+                    } else if (event instanceof Events.DayClickedEvent) {
+                        Events.DayClickedEvent clickedEvent = (Events.DayClickedEvent) event;
+                        if (isShowingCurrentWeeks()) {
+                            updateSelectedDay(clickedEvent.getDay());
+                        }
+                    }
+                }));
+        Subscription sub = mCalendarManager.getBus().toObserverable()
                 .subscribe(event -> {
                     if (event instanceof Events.EventsFetched) {
-                        //Log.d("CalendarView", "events size "+events.size());
-                        if (mWeeksAdapter == null) {
-                            //Log.d(LOG_TAG, "Setting adapter with today's calendar: " + today.toString());
-                            mWeeksAdapter = new WeeksAdapter(getContext(), today, dayTextColor, currentDayTextColor, pastDayTextColor, events);
-                            mListViewWeeks.setAdapter(mWeeksAdapter);
+                        setUpAdapter();
+                    } else if (event instanceof Events.EventsChanged) {
+                        if (mWeeksAdapter != null) {
+                            mWeeksAdapter.updateWeeks(((Events.EventsChanged) event).getWeekPositions());
                         }
-                        mWeeksAdapter.updateWeeksItems(weeks);
-                    }});
+                    }
+                });
         subscriptions.add(sub);
     }
 
-    private void setUpHeader(Calendar today, SimpleDateFormat weekDayFormatter, Locale locale) {
+    private void unsubscribe() {
+        for (Subscription sub: subscriptions) {
+            sub.unsubscribe();
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * Creates a new adapter if necessary and sets up its parameters.
+     */
+    private void setUpAdapter() {
+        //Log.d("CalendarView", "events size "+mEventList.size());
+        if (mWeeksAdapter == null || mWeeksAdapter.getCalendarManager() != mCalendarManager || mWeeksAdapter.getBus() != mBus) {
+            //Log.d(LOG_TAG, "Setting adapter with today's calendar: " + today.toString());
+            mWeeksAdapter = new WeeksAdapter(mCalendarManager, mBus, getContext(), mCalendarManager.getToday(), mDayTextColor, mCurrentDayTextColor, mPastDayTextColor, mEventList);
+            mWeeksAdapter.setViewPrefetcher(mViewPrefetcher);
+            mListViewWeeks.setAdapter(mWeeksAdapter);
+            if (mViewPrefetcher != null) {
+                int count = mViewPrefetcher.getCount(R.layout.list_item_week);
+                mListViewWeeks.getRecycledViewPool().setMaxRecycledViews(0, Math.max(count, MIN_RECYCLED_WEEKS));
+                mViewPrefetcher.seed(mListViewWeeks, 0, R.layout.list_item_week, count);
+            }
+        }
+        mWeeksAdapter.updateWeeksItems(mCalendarManager.getWeeks(), mEventList);
+    }
+
+    private void setUpHeader(DateLabels dateLabels, Locale locale) {
         int daysPerWeek = 7;
         String[] dayLabels = new String[daysPerWeek];
-        Calendar cal = Calendar.getInstance(CalendarManager.getInstance(getContext()).getLocale());
-        cal.setTime(today.getTime());
-        int firstDayOfWeek = cal.getFirstDayOfWeek();
-        for (int count = 0; count < 7; count++) {
-            cal.set(Calendar.DAY_OF_WEEK, firstDayOfWeek + count);
+        int firstDayOfWeek = Calendar.getInstance(locale).getFirstDayOfWeek();
+        for (int count = 0; count < daysPerWeek; count++) {
+            int dayOfWeek = (firstDayOfWeek - 1 + count) % daysPerWeek + 1;
             if (locale.getLanguage().equals("en")) {
-                dayLabels[count] = weekDayFormatter.format(cal.getTime()).toUpperCase(locale);
+                dayLabels[count] = dateLabels.getWeekdayName(dayOfWeek).toUpperCase(locale);
             } else {
-                dayLabels[count] = weekDayFormatter.format(cal.getTime());
+                dayLabels[count] = dateLabels.getWeekdayName(dayOfWeek);
             }
         }
 
@@ -268,13 +372,10 @@ public class CalendarView extends LinearLayout {
     /**
      * Update a selected cell day item.
      *
-     * @param calendar The Calendar instance of the day selected.
      * @param dayItem  The DayItem information held by the cell item.
      * @return The selected row of the weeks list, to be updated.
      */
-    private int updateSelectedDay(Calendar calendar, IDayItem dayItem) {
-        Integer currentWeekIndex = null;
-
+    private int updateSelectedDay(IDayItem dayItem) {
         // update highlighted/selected day
         if (!dayItem.equals(getSelectedDay())) {
             dayItem.setSelected(true);
@@ -282,16 +383,12 @@ public class CalendarView extends LinearLayout {
                 getSelectedDay().setSelected(false);
             }
             setSelectedDay(dayItem);
+            mCalendarManager.setSelectedDay(dayItem);
         }
 
-        for (int c = 0; c < CalendarManager.getInstance().getWeeks().size(); c++) {
-            if (DateHelper.sameWeek(calendar, CalendarManager.getInstance().getWeeks().get(c))) {
-                currentWeekIndex = c;
-                break;
-            }
-        }
+        int currentWeekIndex = mCalendarManager.getModel().getWeekPosition(dayItem.getEpochDay());
 
-        if (currentWeekIndex != null) {
+        if (currentWeekIndex >= 0) {
             // highlighted day has changed, update the rows concerned
             if (currentWeekIndex != mCurrentListPosition) {
                 updateItemAtPosition(mCurrentListPosition);
@@ -0,0 +1,91 @@
+package com.github.tibolte.agendacalendarview.calendar.weekslist;
+
+import android.animation.ValueAnimator;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.util.TypedValue;
+import android.view.View;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Draws the month labels over the weeks while the list is dragged, each over the week holding
+ * the 15th of its month. All the labels share one opacity, faded in and out by a single animator,
+ * so binding and scrolling the rows doesn't touch the labels.
+ */
+class MonthOverlayDecoration extends RecyclerView.ItemDecoration {
+
+    private final RecyclerView mParent;
+    private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+    private final ValueAnimator mAnimator = ValueAnimator.ofFloat(0f, 1f);
+    /**
+     * Opacity of the labels, 0 when hidden
+     */
+    private float mAlpha;
+
+    // region Constructor
+
+    MonthOverlayDecoration(RecyclerView parent) {
+        mParent = parent;
+        mPaint.setTextAlign(Paint.Align.CENTER);
+        mPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 17, parent.getResources().getDisplayMetrics()));
+        mPaint.setTypeface(Typeface.DEFAULT_BOLD);
+        mPaint.setColor(Color.BLACK);
+        mPaint.getFontMetrics(mFontMetrics);
+
+        mAnimator.addUpdateListener(animation -> {
+            mAlpha = (float) animation.getAnimatedValue();
+            mParent.invalidate();
+        });
+    }
+
+    // endregion
+
+    // region Package methods
+
+    /**
+     * Fade the labels in or out, from their current opacity.
+     */
+    void setVisible(boolean visible) {
+        float alpha = visible ? 1f : 0f;
+        mAnimator.cancel();
+        if (alpha == mAlpha) {
+            return;
+        }
+        mAnimator.setFloatValues(mAlpha, alpha);
+        mAnimator.setDuration((long) (WeeksAdapter.FADE_DURATION * Math.abs(alpha - mAlpha)));
+        mAnimator.start();
+    }
+
+    // endregion
+
+    // region Class - RecyclerView.ItemDecoration
+
+    @Override
+    public void onDrawOver(Canvas canvas, RecyclerView parent, RecyclerView.State state) {
+        if (mAlpha <= 0 || !(parent.getAdapter() instanceof WeeksAdapter)) {
+            return;
+        }
+        WeeksAdapter weeksAdapter = (WeeksAdapter) parent.getAdapter();
+        mPaint.setAlpha((int) (255 * mAlpha));
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            View child = parent.getChildAt(i);
+            int position = parent.getChildAdapterPosition(child);
+            if (position == RecyclerView.NO_POSITION || position >= weeksAdapter.getItemCount()) {
+                continue;
+            }
+            String monthLabel = weeksAdapter.getMonthLabel(position);
+            if (monthLabel == null) {
+                continue;
+            }
+            float top = child.getTop() + child.getTranslationY();
+            float baseline = top + (child.getHeight() - mFontMetrics.bottom - mFontMetrics.top) / 2;
+            canvas.drawText(monthLabel, child.getLeft() + child.getWidth() / 2f, baseline, mPaint);
+        }
+    }
+
+    // endregion
+}
@@ -1,6 +1,5 @@
 package com.github.tibolte.agendacalendarview.calendar.weekslist;
 
-import com.github.tibolte.agendacalendarview.utils.BusProvider;
 import com.github.tibolte.agendacalendarview.utils.Events;
 
 import android.content.Context;
@@ -9,21 +8,35 @@ import android.util.AttributeSet;
 import android.view.View;
 
 public class WeekListView extends RecyclerView {
+
+    /**
+     * Time the month labels stay after a drag, while the list settles on a week
+     */
+    private static final long MONTH_OVERLAY_HIDE_DELAY = 700;
+
     private boolean mUserScrolling = false;
     private boolean mScrolling = false;
+    /**
+     * Month labels shown over the weeks while the list is dragged
+     */
+    private final MonthOverlayDecoration mMonthOverlay = new MonthOverlayDecoration(this);
+    private final Runnable mHideMonthOverlay = () -> mMonthOverlay.setVisible(false);
 
     // region Constructors
 
     public WeekListView(Context context) {
         super(context);
+        addItemDecoration(mMonthOverlay);
     }
 
     public WeekListView(Context context, AttributeSet attrs) {
         super(context, attrs);
+        addItemDecoration(mMonthOverlay);
     }
 
     public WeekListView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
+        addItemDecoration(mMonthOverlay);
     }
 
     // endregion
@@ -62,7 +75,7 @@ public class WeekListView extends RecyclerView {
                 case SCROLL_STATE_IDLE:
                     if (mUserScrolling) {
                         scrollToView(getCenterView());
-                        postDelayed(() -> weeksAdapter.setDragging(false), 700); // Wait for recyclerView to settle
+                        postDelayed(mHideMonthOverlay, MONTH_OVERLAY_HIDE_DELAY); // Wait for recyclerView to settle
                     }
 
                     mUserScrolling = false;
@@ -70,17 +83,15 @@ public class WeekListView extends RecyclerView {
                     break;
                 // If scroll is caused by a touch (scroll touch, not any touch)
                 case SCROLL_STATE_DRAGGING:
-                    BusProvider.getInstance().send(new Events.CalendarScrolledEvent());
+                    weeksAdapter.getBus().send(new Events.CalendarScrolledEvent());
                     // If scroll was initiated already, this is not a user scrolling, but probably a tap, else set userScrolling
                     if (!mScrolling) {
                         mUserScrolling = true;
                     }
-                    weeksAdapter.setDragging(true);
+                    removeCallbacks(mHideMonthOverlay);
+                    mMonthOverlay.setVisible(true);
                     break;
                 case SCROLL_STATE_SETTLING:
-                    // The user's finger is not touching the list anymore, no need
-                    // for any alpha animation then
-                    weeksAdapter.setAlphaSet(true);
                     mScrolling = true;
                     break;
             }
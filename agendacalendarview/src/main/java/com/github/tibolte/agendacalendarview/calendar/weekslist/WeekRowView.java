@@ -0,0 +1,383 @@
+package com.github.tibolte.agendacalendarview.calendar.weekslist;
+
+import com.github.tibolte.agendacalendarview.R;
+import com.github.tibolte.agendacalendarview.models.IDayItem;
+import com.github.tibolte.agendacalendarview.models.IWeekItem;
+import com.github.tibolte.agendacalendarview.utils.DateLabels;
+import com.github.tibolte.agendacalendarview.utils.DaySummary;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.os.Bundle;
+import android.util.AttributeSet;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.accessibility.AccessibilityEvent;
+
+import androidx.core.content.ContextCompat;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.accessibility.AccessibilityNodeInfoCompat;
+import androidx.customview.widget.ExploreByTouchHelper;
+
+import java.util.List;
+
+/**
+ * Row of the weeks list, drawing its seven days directly: the day numbers, the labels of the first
+ * days of the months, the today, selection and badge marks and the event indicators. It finds the
+ * touched day itself, so a row is a single view, exposing its days to the accessibility services
+ * as virtual views. The month labels shown while the list is dragged are drawn over the rows by
+ * the WeekListView.
+ */
+public class WeekRowView extends View {
+
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int BADGE_COLOR = 0xffff0000;
+
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mIndicatorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+
+    private final int mCellHeight;
+    private final float mCircleSize;
+    private final float mIndicatorSize;
+    private final float mIndicatorMargin;
+    private final float mDensity;
+    /**
+     * Height of a line of day text, as a TextView measures it
+     */
+    private final float mTextHeight;
+
+    private int mDayTextColor, mCurrentDayTextColor, mPastDayTextColor;
+
+    // the bound week, read by onDraw
+    private final IDayItem[] mDays = new IDayItem[DAYS_PER_WEEK];
+    private final String[] mDayLabels = new String[DAYS_PER_WEEK];
+    private DateLabels mDateLabels;
+    private final int[] mEventCounts = new int[DAYS_PER_WEEK];
+    private final int[] mEventColors = new int[DAYS_PER_WEEK * DaySummary.MAX_COLORS];
+    private int mTodayEpochDay;
+
+    private OnDayClickListener mOnDayClickListener;
+    /**
+     * Index of the day touched down, -1 if none
+     */
+    private int mTouchedDay = -1;
+    private final DayTouchHelper mTouchHelper;
+
+    // region Constructors
+
+    public WeekRowView(Context context) {
+        this(context, null);
+    }
+
+    public WeekRowView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public WeekRowView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        Resources resources = getResources();
+        mDensity = resources.getDisplayMetrics().density;
+        mCellHeight = resources.getDimensionPixelSize(R.dimen.day_cell_height);
+        mCircleSize = resources.getDimension(R.dimen.circle_selected_size);
+        mIndicatorSize = 10 * mDensity;
+        mIndicatorMargin = 3 * mDensity;
+
+        mTextPaint.setTextAlign(Paint.Align.CENTER);
+        mTextPaint.setTextSize(resources.getDimension(R.dimen.text_day_size));
+        mTextPaint.getFontMetrics(mFontMetrics);
+        mTextHeight = mFontMetrics.bottom - mFontMetrics.top;
+
+        mCirclePaint.setStyle(Paint.Style.STROKE);
+        mIndicatorPaint.setStyle(Paint.Style.FILL);
+
+        int defaultColor = ContextCompat.getColor(context, R.color.calendar_text_default);
+        mDayTextColor = mCurrentDayTextColor = mPastDayTextColor = defaultColor;
+
+        mTouchHelper = new DayTouchHelper(this);
+        ViewCompat.setAccessibilityDelegate(this, mTouchHelper);
+    }
+
+    // endregion
+
+    // region Public methods
+
+    public void setColors(int dayTextColor, int currentDayTextColor, int pastDayTextColor) {
+        mDayTextColor = dayTextColor;
+        mCurrentDayTextColor = currentDayTextColor;
+        mPastDayTextColor = pastDayTextColor;
+        invalidate();
+    }
+
+    /**
+     * Show a week.
+     *
+     * @param weekItem      The week.
+     * @param daySummary    The events count and indicator colors of the days.
+     * @param dateLabels    The labels of the day numbers.
+     * @param todayEpochDay The current day.
+     */
+    public void setWeek(IWeekItem weekItem, DaySummary daySummary, DateLabels dateLabels, int todayEpochDay) {
+        List<IDayItem> dayItems = weekItem.getDayItems();
+        for (int c = 0; c < DAYS_PER_WEEK; c++) {
+            IDayItem dayItem = c < dayItems.size() ? dayItems.get(c) : null;
+            mDays[c] = dayItem;
+            mDayLabels[c] = dayItem != null ? dateLabels.getDayNumber(dayItem.getValue()) : null;
+        }
+        readIndicators(daySummary);
+        mDateLabels = dateLabels;
+        mTodayEpochDay = todayEpochDay;
+        invalidate();
+        // the days and their selection may have changed
+        mTouchHelper.invalidateRoot();
+    }
+
+    /**
+     * Show the indicators of the events of the days again, the rest of the week is kept.
+     *
+     * @param daySummary The events count and indicator colors of the days.
+     */
+    public void setIndicators(DaySummary daySummary) {
+        readIndicators(daySummary);
+        invalidate();
+    }
+
+    /**
+     * Show the days again after their selection or badge changed, they are read when drawn.
+     */
+    public void refreshDays() {
+        invalidate();
+        mTouchHelper.invalidateRoot();
+    }
+
+    public void setOnDayClickListener(OnDayClickListener onDayClickListener) {
+        mOnDayClickListener = onDayClickListener;
+    }
+
+    // endregion
+
+    // region Class - View
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        setMeasuredDimension(getDefaultSize(getSuggestedMinimumWidth(), widthMeasureSpec),
+                resolveSize(mCellHeight, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        float cellWidth = getWidth() / (float) DAYS_PER_WEEK;
+        int cellHeight = getHeight();
+        for (int c = 0; c < DAYS_PER_WEEK; c++) {
+            if (mDays[c] != null) {
+                drawDay(canvas, c, cellWidth * c + cellWidth / 2, cellHeight);
+            }
+        }
+    }
+
+    @Override
+    protected boolean dispatchHoverEvent(MotionEvent event) {
+        return mTouchHelper.dispatchHoverEvent(event) || super.dispatchHoverEvent(event);
+    }
+
+    @Override
+    public boolean dispatchKeyEvent(KeyEvent event) {
+        return mTouchHelper.dispatchKeyEvent(event) || super.dispatchKeyEvent(event);
+    }
+
+    @Override
+    protected void onFocusChanged(boolean gainFocus, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+        mTouchHelper.onFocusChanged(gainFocus, direction, previouslyFocusedRect);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (!isEnabled()) {
+            return false;
+        }
+        switch (event.getAction()) {
+            case MotionEvent.ACTION_DOWN:
+                mTouchedDay = getDayIndex(event.getX());
+                return true;
+            case MotionEvent.ACTION_UP:
+                int dayIndex = getDayIndex(event.getX());
+                boolean clicked = dayIndex == mTouchedDay && event.getY() >= 0 && event.getY() < getHeight();
+                mTouchedDay = -1;
+                if (clicked) {
+                    performDayClick(dayIndex);
+                }
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                mTouchedDay = -1;
+                return true;
+            default:
+                return true;
+        }
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private void drawDay(Canvas canvas, int c, float centerX, int cellHeight) {
+        IDayItem dayItem = mDays[c];
+        boolean selected = dayItem.isSelected();
+        boolean firstDayOfMonth = dayItem.isFirstDayOfTheMonth() && !selected;
+        boolean circle = selected || dayItem.getShowBadge();
+
+        int textColor = mDayTextColor;
+        if (dayItem.getEpochDay() < mTodayEpochDay) {
+            textColor = mPastDayTextColor;
+        }
+        int dayTextColor = textColor;
+        if (dayItem.isToday() && !selected) {
+            dayTextColor = mCurrentDayTextColor;
+        }
+        if (selected) {
+            dayTextColor = mDayTextColor;
+        }
+
+        // the month label above the day, both centered in the cell
+        float dayHeight = circle ? Math.max(mCircleSize, mTextHeight) : mTextHeight;
+        float labelHeight = firstDayOfMonth ? mTextHeight : 0;
+        float top = (cellHeight - labelHeight - dayHeight) / 2;
+        float dayCenterY = top + labelHeight + dayHeight / 2;
+
+        mTextPaint.setTypeface(firstDayOfMonth ? Typeface.DEFAULT_BOLD : Typeface.DEFAULT);
+        mTextPaint.getFontMetrics(mFontMetrics);
+        if (firstDayOfMonth && dayItem.getMonth() != null) {
+            mTextPaint.setColor(textColor);
+            canvas.drawText(dayItem.getMonth(), centerX, top - mFontMetrics.top, mTextPaint);
+        }
+
+        if (circle) {
+            // a badge is drawn in red, the selection over it
+            float strokeWidth = selected ? mDensity : 2 * mDensity;
+            mCirclePaint.setStrokeWidth(strokeWidth);
+            mCirclePaint.setColor(selected ? mDayTextColor : BADGE_COLOR);
+            canvas.drawCircle(centerX, dayCenterY, (mCircleSize - strokeWidth) / 2, mCirclePaint);
+        }
+
+        mTextPaint.setColor(dayTextColor);
+        canvas.drawText(mDayLabels[c], centerX, dayCenterY - (mFontMetrics.bottom + mFontMetrics.top) / 2, mTextPaint);
+
+        // three indicator slots at the bottom, filled from the right with the first events
+        float slotWidth = mIndicatorMargin + mIndicatorSize;
+        float left = centerX - DaySummary.MAX_COLORS * slotWidth / 2;
+        float indicatorCenterY = cellHeight - mIndicatorSize / 2;
+        for (int slot = 0; slot < DaySummary.MAX_COLORS; slot++) {
+            int event = DaySummary.MAX_COLORS - 1 - slot;
+            if (event < mEventCounts[c]) {
+                mIndicatorPaint.setColor(mEventColors[c * DaySummary.MAX_COLORS + event]);
+                canvas.drawCircle(left + slot * slotWidth + mIndicatorMargin + mIndicatorSize / 2, indicatorCenterY, mIndicatorSize / 2, mIndicatorPaint);
+            }
+        }
+    }
+
+    private void readIndicators(DaySummary daySummary) {
+        for (int c = 0; c < DAYS_PER_WEEK; c++) {
+            if (mDays[c] == null) {
+                mEventCounts[c] = 0;
+                continue;
+            }
+            int epochDay = mDays[c].getEpochDay();
+            int eventCount = Math.min(daySummary.getEventCount(epochDay), DaySummary.MAX_COLORS);
+            mEventCounts[c] = eventCount;
+            for (int i = 0; i < eventCount; i++) {
+                mEventColors[c * DaySummary.MAX_COLORS + i] = daySummary.getColor(epochDay, i);
+            }
+        }
+    }
+
+    private int getDayIndex(float x) {
+        if (getWidth() == 0) {
+            return -1;
+        }
+        int dayIndex = (int) (x * DAYS_PER_WEEK / getWidth());
+        return Math.max(0, Math.min(DAYS_PER_WEEK - 1, dayIndex));
+    }
+
+    private void performDayClick(int dayIndex) {
+        performClick();
+        IDayItem dayItem = mDays[dayIndex];
+        if (dayItem != null && mOnDayClickListener != null) {
+            mOnDayClickListener.onDayClick(dayItem);
+        }
+        mTouchHelper.sendEventForVirtualView(dayIndex, AccessibilityEvent.TYPE_VIEW_CLICKED);
+    }
+
+    // endregion
+
+    // region Class - DayTouchHelper
+
+    /**
+     * Exposes each day of the row as a virtual view, described by its date, which can be selected
+     * like a touched day.
+     */
+    private class DayTouchHelper extends ExploreByTouchHelper {
+
+        private final Rect mBounds = new Rect();
+
+        DayTouchHelper(View host) {
+            super(host);
+        }
+
+        @Override
+        protected int getVirtualViewAt(float x, float y) {
+            int dayIndex = getDayIndex(x);
+            return dayIndex >= 0 && mDays[dayIndex] != null ? dayIndex : INVALID_ID;
+        }
+
+        @Override
+        protected void getVisibleVirtualViews(List<Integer> virtualViewIds) {
+            for (int c = 0; c < DAYS_PER_WEEK; c++) {
+                if (mDays[c] != null) {
+                    virtualViewIds.add(c);
+                }
+            }
+        }
+
+        @Override
+        protected void onPopulateNodeForVirtualView(int virtualViewId, AccessibilityNodeInfoCompat node) {
+            int cellWidth = getWidth() / DAYS_PER_WEEK;
+            mBounds.set(cellWidth * virtualViewId, 0, cellWidth * (virtualViewId + 1), getHeight());
+            node.setBoundsInParent(mBounds);
+
+            IDayItem dayItem = mDays[virtualViewId];
+            if (dayItem == null || mDateLabels == null) {
+                // the week changed since the node was asked for
+                node.setContentDescription("");
+                return;
+            }
+            node.setContentDescription(mDateLabels.getFullDate(dayItem.getEpochDay()));
+            node.setSelected(dayItem.isSelected());
+            node.addAction(AccessibilityNodeInfoCompat.ACTION_CLICK);
+        }
+
+        @Override
+        protected boolean onPerformActionForVirtualView(int virtualViewId, int action, Bundle arguments) {
+            if (action == AccessibilityNodeInfoCompat.ACTION_CLICK && mDays[virtualViewId] != null) {
+                performDayClick(virtualViewId);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    // endregion
+
+    // region Interfaces
+
+    public interface OnDayClickListener {
+        void onDayClick(IDayItem dayItem);
+    }
+
+    // endregion
+}
@@ -5,63 +5,231 @@ import com.github.tibolte.agendacalendarview.R;
 import com.github.tibolte.agendacalendarview.models.CalendarEvent;
 import com.github.tibolte.agendacalendarview.models.IDayItem;
 import com.github.tibolte.agendacalendarview.models.IWeekItem;
+import com.github.tibolte.agendacalendarview.utils.BackgroundExecutor;
 import com.github.tibolte.agendacalendarview.utils.BusProvider;
 import com.github.tibolte.agendacalendarview.utils.DateHelper;
+import com.github.tibolte.agendacalendarview.utils.DaySummary;
 import com.github.tibolte.agendacalendarview.utils.Events;
+import com.github.tibolte.agendacalendarview.utils.ViewPrefetcher;
 
-import android.animation.Animator;
-import android.animation.AnimatorSet;
-import android.animation.ObjectAnimator;
 import android.content.Context;
-import android.content.res.Resources;
-import android.graphics.PorterDuff;
-import android.graphics.PorterDuffColorFilter;
-import android.graphics.Typeface;
-import android.graphics.drawable.GradientDrawable;
 
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.FrameLayout;
-import android.widget.LinearLayout;
-import android.widget.TextView;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
+import java.util.TimeZone;
 
 public class WeeksAdapter extends RecyclerView.Adapter<WeeksAdapter.WeekViewHolder> {
 
     public static final long FADE_DURATION = 250;
 
+    /**
+     * Payloads of the partial changes of a week, only the affected parts of its row are updated
+     */
+    public enum WeekChange {
+        /**
+         * A day of the week was selected or unselected
+         */
+        SELECTION,
+        /**
+         * The badges of the days changed
+         */
+        BADGES,
+        /**
+         * The events count and indicator colors of the days changed
+         */
+        INDICATORS,
+        /**
+         * The events of the days changed, both their indicators and their badges
+         */
+        EVENTS,
+        /**
+         * The weeks were built again, the row shows the new day items, which hold the badge and
+         * selection state, and the current day
+         */
+        DAYS
+    }
+
+    private final CalendarManager mCalendarManager;
+    /**
+     * Bus of the interactions with the view, not shared with the other views of the manager
+     */
+    private final BusProvider mBus;
     private Context mContext;
     private Calendar mToday;
     private List<IWeekItem> mWeeksList = new ArrayList<>();
     private List<CalendarEvent> mEventList = new ArrayList<>();
-    private boolean mDragging;
-    private boolean mAlphaSet;
+    /**
+     * Epoch day of the first day of mWeeksList, the ids of the weeks are their first day
+     */
+    private int mFirstDay;
+    /**
+     * Events count and indicator colors of each day, built once per data change
+     */
+    private DaySummary mDaySummary;
+    /**
+     * Number of updates computed on the background thread and not applied yet
+     */
+    private int mPendingUpdates;
+    /**
+     * State after the last computed update, only accessed on the background thread, the tasks
+     * setting it run in order with the updates: the next update is compared to it
+     */
+    private DaySummary mComputedSummary;
+    private int mComputedFirstDay;
+    private int mComputedWeekCount;
+    /**
+     * Rows inflated ahead of time, null if none
+     */
+    private ViewPrefetcher mViewPrefetcher;
     private int mDayTextColor, mPastDayTextColor, mCurrentDayColor;
 
     // region Constructor
 
-    public WeeksAdapter(Context context, Calendar today, int dayTextColor, int currentDayTextColor, int pastDayTextColor, List<CalendarEvent> events) {
+    /**
+     * @param bus The bus of the interactions with the view, the clicked days are sent to it.
+     */
+    public WeeksAdapter(CalendarManager calendarManager, BusProvider bus, Context context, Calendar today, int dayTextColor, int currentDayTextColor, int pastDayTextColor, List<CalendarEvent> events) {
+        this.mCalendarManager = calendarManager;
+        this.mBus = bus;
         this.mToday = today;
         this.mContext = context;
         this.mDayTextColor = dayTextColor;
         this.mCurrentDayColor = currentDayTextColor;
         this.mPastDayTextColor = pastDayTextColor;
         this.mEventList = events;
+        mDaySummary = new DaySummary(events, 0, -1, TimeZone.getDefault());
+        final DaySummary daySummary = mDaySummary;
+        BackgroundExecutor.execute(() -> setComputedState(daySummary, 0, 0));
+        setHasStableIds(true);
     }
 
     // endregion
 
+    public CalendarManager getCalendarManager() {
+        return mCalendarManager;
+    }
+
+    public BusProvider getBus() {
+        return mBus;
+    }
+
     public void updateWeeksItems(List<IWeekItem> weekItems) {
-        this.mWeeksList.clear();
-        this.mWeeksList.addAll(weekItems);
-        notifyDataSetChanged();
+        updateWeeksItems(weekItems, mEventList);
+    }
+
+    /**
+     * Replace the weeks and events. Unless the adapter is empty, the summary of the days and the
+     * difference with the current weeks are computed on a background thread, then only the weeks
+     * which changed are bound again.
+     */
+    public void updateWeeksItems(List<IWeekItem> weekItems, List<CalendarEvent> events) {
+        final List<CalendarEvent> eventList = new ArrayList<>(events);
+        final int firstDay = weekItems.isEmpty() ? 0 : weekItems.get(0).getDayItems().get(0).getEpochDay();
+        final int weekCount = weekItems.size();
+        if (mWeeksList.isEmpty() && mPendingUpdates == 0) {
+            // shown at once, the list is scrolled to the current date right after
+            final DaySummary daySummary = new DaySummary(eventList, firstDay, firstDay + weekCount * 7 - 1, TimeZone.getDefault());
+            BackgroundExecutor.execute(() -> setComputedState(daySummary, firstDay, weekCount));
+            // keep the list itself, weeks may be built on demand
+            this.mWeeksList = weekItems;
+            this.mFirstDay = firstDay;
+            this.mEventList = eventList;
+            this.mDaySummary = daySummary;
+            notifyDataSetChanged();
+            return;
+        }
+
+        mPendingUpdates++;
+        BackgroundExecutor.execute(() -> {
+            final DaySummary oldSummary = mComputedSummary;
+            final int oldFirstDay = mComputedFirstDay;
+            final int oldWeekCount = mComputedWeekCount;
+            final DaySummary daySummary = new DaySummary(eventList, firstDay, firstDay + weekCount * 7 - 1, TimeZone.getDefault());
+            setComputedState(daySummary, firstDay, weekCount);
+            DiffUtil.DiffResult diffResult = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                @Override
+                public int getOldListSize() {
+                    return oldWeekCount;
+                }
+
+                @Override
+                public int getNewListSize() {
+                    return weekCount;
+                }
+
+                @Override
+                public boolean areItemsTheSame(int oldPosition, int newPosition) {
+                    return oldFirstDay + oldPosition * 7 == firstDay + newPosition * 7;
+                }
+
+                @Override
+                public boolean areContentsTheSame(int oldPosition, int newPosition) {
+                    int weekStart = firstDay + newPosition * 7;
+                    for (int day = weekStart; day < weekStart + 7; day++) {
+                        if (!daySummary.sameDay(oldSummary, day)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+            }, false);
+
+            BackgroundExecutor.post(() -> {
+                mPendingUpdates--;
+                this.mWeeksList = weekItems;
+                this.mFirstDay = firstDay;
+                this.mEventList = eventList;
+                this.mDaySummary = daySummary;
+                this.mToday = mCalendarManager.getToday();
+                diffResult.dispatchUpdatesTo(this);
+                // the rows whose summary is unchanged still show the day items of the previous
+                // weeks, only the bound rows are updated
+                notifyItemRangeChanged(0, weekCount, WeekChange.DAYS);
+            });
+        });
+    }
+
+    /**
+     * Rebind only the weeks whose days changed, once the summary of the days is built again on a
+     * background thread.
+     *
+     * @param weekPositions The positions of the changed weeks, in the current weeks of the manager.
+     */
+    public void updateWeeks(int[] weekPositions) {
+        // the source events of the manager, the list given to init is not updated
+        final List<CalendarEvent> eventList = mCalendarManager.getSourceEvents();
+        // the adapter may still show other weeks, the changed weeks are found by their first day
+        final int[] weekDays = new int[weekPositions.length];
+        int firstDay = mCalendarManager.getModel().getFirstDay();
+        for (int w = 0; w < weekPositions.length; w++) {
+            weekDays[w] = firstDay + weekPositions[w] * 7;
+        }
+        mPendingUpdates++;
+        BackgroundExecutor.execute(() -> {
+            final DaySummary daySummary = new DaySummary(eventList, mComputedFirstDay, mComputedFirstDay + mComputedWeekCount * 7 - 1, TimeZone.getDefault());
+            setComputedState(daySummary, mComputedFirstDay, mComputedWeekCount);
+
+            BackgroundExecutor.post(() -> {
+                mPendingUpdates--;
+                this.mEventList = eventList;
+                this.mDaySummary = daySummary;
+                for (int weekDay : weekDays) {
+                    int position = (weekDay - mFirstDay) / 7;
+                    if (weekDay < mFirstDay || position >= getItemCount()) {
+                        continue;
+                    }
+                    notifyItemChanged(position, WeekChange.EVENTS);
+                }
+            });
+        });
     }
 
     // region Getters/setters
@@ -70,23 +238,37 @@ public class WeeksAdapter extends RecyclerView.Adapter<WeeksAdapter.WeekViewHold
         return mWeeksList;
     }
 
-    public boolean isDragging() {
-        return mDragging;
+    /**
+     * Take the rows of a prefetcher before inflating new ones.
+     */
+    public void setViewPrefetcher(ViewPrefetcher viewPrefetcher) {
+        mViewPrefetcher = viewPrefetcher;
     }
 
-    public void setDragging(boolean dragging) {
-        if (dragging != this.mDragging) {
-            this.mDragging = dragging;
-            notifyItemRangeChanged(0, mWeeksList.size());
+    /**
+     * Get the month label drawn over a week while the list is dragged, shown over the week
+     * holding the 15th of the month, with its year if it isn't the current one.
+     *
+     * @return The label, null if the week doesn't show one.
+     */
+    public String getMonthLabel(int position) {
+        IWeekItem weekItem = mWeeksList.get(position);
+        for (IDayItem dayItem : weekItem.getDayItems()) {
+            if (dayItem.getValue() == 15) {
+                return mCalendarManager.getDateLabels().getMonthLabel(weekItem.getYear(), weekItem.getMonth(), mToday.get(Calendar.YEAR) != weekItem.getYear());
+            }
         }
+        return null;
     }
 
-    public boolean isAlphaSet() {
-        return mAlphaSet;
-    }
+    // endregion
 
-    public void setAlphaSet(boolean alphaSet) {
-        mAlphaSet = alphaSet;
+    // region Private methods
+
+    private void setComputedState(DaySummary daySummary, int firstDay, int weekCount) {
+        mComputedSummary = daySummary;
+        mComputedFirstDay = firstDay;
+        mComputedWeekCount = weekCount;
     }
 
     // endregion
@@ -95,7 +277,10 @@ public class WeeksAdapter extends RecyclerView.Adapter<WeeksAdapter.WeekViewHold
 
     @Override
     public WeekViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.list_item_week, parent, false);
+        View view = mViewPrefetcher != null ? mViewPrefetcher.obtain(R.layout.list_item_week) : null;
+        if (view == null) {
+            view = LayoutInflater.from(parent.getContext()).inflate(R.layout.list_item_week, parent, false);
+        }
         return new WeekViewHolder(view);
     }
 
@@ -105,216 +290,69 @@ public class WeeksAdapter extends RecyclerView.Adapter<WeeksAdapter.WeekViewHold
         weekViewHolder.bindWeek(weekItem, mToday);
     }
 
+    @Override
+    public void onBindViewHolder(WeekViewHolder weekViewHolder, int position, List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(weekViewHolder, position);
+            return;
+        }
+        for (Object payload : payloads) {
+            if (payload == WeekChange.DAYS) {
+                // the whole week is shown again, the other changes are included
+                onBindViewHolder(weekViewHolder, position);
+                return;
+            }
+        }
+        for (Object payload : payloads) {
+            weekViewHolder.bindChange((WeekChange) payload);
+        }
+    }
+
     @Override
     public int getItemCount() {
         return mWeeksList.size();
     }
 
+    @Override
+    public long getItemId(int position) {
+        return mFirstDay + position * 7L;
+    }
+
     // endregion
 
     // region Class - WeekViewHolder
 
     public class WeekViewHolder extends RecyclerView.ViewHolder {
 
-        /**
-         * List of layout containers for each day
-         */
-        private List<LinearLayout> mCells;
-        private TextView mTxtMonth;
-        private FrameLayout mMonthBackground;
+        private final WeekRowView mWeekRow;
 
         public WeekViewHolder(View itemView) {
             super(itemView);
-            mTxtMonth = (TextView) itemView.findViewById(R.id.month_label);
-            mMonthBackground = (FrameLayout) itemView.findViewById(R.id.month_background);
-            LinearLayout daysContainer = (LinearLayout) itemView.findViewById(R.id.week_days_container);
-            setUpChildren(daysContainer);
+            mWeekRow = (WeekRowView) itemView;
+            mWeekRow.setColors(mDayTextColor, mCurrentDayColor, mPastDayTextColor);
+            mWeekRow.setOnDayClickListener(dayItem -> mBus.send(new Events.DayClickedEvent(dayItem)));
         }
 
         public void bindWeek(IWeekItem weekItem, Calendar today) {
-            setUpMonthOverlay();
-
-            List<IDayItem> dayItems = weekItem.getDayItems();
-
-            for (int c = 0; c < dayItems.size(); c++) {
-                final IDayItem dayItem = dayItems.get(c);
-                LinearLayout cellItem = mCells.get(c);
-                TextView txtDay = (TextView) cellItem.findViewById(R.id.view_day_day_label);
-                TextView txtMonth = (TextView) cellItem.findViewById(R.id.view_day_month_label);
-                View circleView = cellItem.findViewById(R.id.view_day_circle_selected);
-                View eventIndicator1 = cellItem.findViewById(R.id.view_day_event_indicator1);
-                View eventIndicator2 = cellItem.findViewById(R.id.view_day_event_indicator2);
-                View eventIndicator3 = cellItem.findViewById(R.id.view_day_event_indicator3);
-                cellItem.setOnClickListener(v->BusProvider.getInstance().send(new Events.DayClickedEvent(dayItem)));
-
-                eventIndicator1.setVisibility(View.INVISIBLE);
-                eventIndicator2.setVisibility(View.INVISIBLE);
-                eventIndicator3.setVisibility(View.INVISIBLE);
-
-                Calendar dayItemCalendar = Calendar.getInstance();
-                dayItemCalendar.setTime(dayItem.getDate());
-                int eventCount = 0;
-                for (CalendarEvent event: mEventList) {
-                    if (event.isPlaceholder())
-                        continue;
-                    if (event.getStartTime().get(Calendar.YEAR) == dayItemCalendar.get(Calendar.YEAR)
-                            && event.getStartTime().get(Calendar.MONTH) == dayItemCalendar.get(Calendar.MONTH)
-                            && event.getStartTime().get(Calendar.DAY_OF_MONTH) == dayItemCalendar.get(Calendar.DAY_OF_MONTH)) {
-                        eventCount++;
-                        if (eventCount == 1) {
-                            eventIndicator1.setVisibility(View.VISIBLE);
-                            eventIndicator1.getBackground().setColorFilter(new PorterDuffColorFilter(event.getColor(),PorterDuff.Mode.MULTIPLY));
-                        }
-                        if (eventCount == 2) {
-                            eventIndicator2.setVisibility(View.VISIBLE);
-                            eventIndicator2.getBackground().setColorFilter(new PorterDuffColorFilter(event.getColor(),PorterDuff.Mode.MULTIPLY));
-                        }
-                        if (eventCount == 3) {
-                            eventIndicator3.setVisibility(View.VISIBLE);
-                            eventIndicator3.getBackground().setColorFilter(new PorterDuffColorFilter(event.getColor(),PorterDuff.Mode.MULTIPLY));
-                        }
-                    }
-                }
-
-                //Log.d("CalendarView", "Event count for day "+dayItem.getValue()+" is "+eventCount);
-
-                txtMonth.setVisibility(View.GONE);
-                txtDay.setTextColor(mDayTextColor);
-                txtMonth.setTextColor(mDayTextColor);
-                circleView.setVisibility(View.GONE);
-
-                txtDay.setTypeface(null, Typeface.NORMAL);
-                txtMonth.setTypeface(null, Typeface.NORMAL);
-
-                // Display the day
-                txtDay.setText(Integer.toString(dayItem.getValue()));
-
-                // Highlight first day of the month
-                if (dayItem.isFirstDayOfTheMonth() && !dayItem.isSelected()) {
-                    txtMonth.setVisibility(View.VISIBLE);
-                    txtMonth.setText(dayItem.getMonth());
-                    txtDay.setTypeface(null, Typeface.BOLD);
-                    txtMonth.setTypeface(null, Typeface.BOLD);
-                }
-
-                // Check if this day is in the past
-                if (today.getTime().after(dayItem.getDate()) && !DateHelper.sameDate(today, dayItem.getDate())) {
-                    txtDay.setTextColor(mPastDayTextColor);
-                    txtMonth.setTextColor(mPastDayTextColor);
-                }
-
-                // Highlight the cell if this day is today
-                if (dayItem.isToday() && !dayItem.isSelected()) {
-                    txtDay.setTextColor(mCurrentDayColor);
-                }
-
-                if (dayItem.getShowBadge()) {
-                    circleView.setVisibility(View.VISIBLE);
-                    GradientDrawable drawable = (GradientDrawable) circleView.getBackground();
-                    drawable.setStroke((int) (2 * Resources.getSystem().getDisplayMetrics().density), 0xffff0000);
-                }
-
-                // Show a circle if the day is selected
-                if (dayItem.isSelected()) {
-                    txtDay.setTextColor(mDayTextColor);
-                    circleView.setVisibility(View.VISIBLE);
-                    GradientDrawable drawable = (GradientDrawable) circleView.getBackground();
-                    drawable.setStroke((int) (1 * Resources.getSystem().getDisplayMetrics().density), mDayTextColor);
-                }
-
-                // Check if the month label has to be displayed
-                if (dayItem.getValue() == 15) {
-                    mTxtMonth.setVisibility(View.VISIBLE);
-                    SimpleDateFormat monthDateFormat = new SimpleDateFormat(mContext.getResources().getString(R.string.month_name_format), CalendarManager.getInstance().getLocale());
-                    String month = monthDateFormat.format(weekItem.getDate()).toUpperCase();
-                    if (today.get(Calendar.YEAR) != weekItem.getYear()) {
-                        month = month + String.format(" %d", weekItem.getYear());
-                    }
-                    mTxtMonth.setText(month);
-                }
-            }
-        }
-
-        private void setUpChildren(LinearLayout daysContainer) {
-            mCells = new ArrayList<>();
-            for (int i = 0; i < daysContainer.getChildCount(); i++) {
-                mCells.add((LinearLayout) daysContainer.getChildAt(i));
-            }
+            mWeekRow.setWeek(weekItem, mDaySummary, mCalendarManager.getDateLabels(), DateHelper.toEpochDay(today));
         }
 
-        private void setUpMonthOverlay() {
-            mTxtMonth.setVisibility(View.GONE);
-
-            if (isDragging()) {
-                AnimatorSet animatorSetFadeIn = new AnimatorSet();
-                animatorSetFadeIn.setDuration(FADE_DURATION);
-                ObjectAnimator animatorTxtAlphaIn = ObjectAnimator.ofFloat(mTxtMonth, "alpha", mTxtMonth.getAlpha(), 1f);
-                ObjectAnimator animatorBackgroundAlphaIn = ObjectAnimator.ofFloat(mMonthBackground, "alpha", mMonthBackground.getAlpha(), 1f);
-                animatorSetFadeIn.playTogether(
-                        animatorTxtAlphaIn
-                        //animatorBackgroundAlphaIn
-                );
-                animatorSetFadeIn.addListener(new Animator.AnimatorListener() {
-                    @Override
-                    public void onAnimationStart(Animator animation) {
-
-                    }
-
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        setAlphaSet(true);
-                    }
-
-                    @Override
-                    public void onAnimationCancel(Animator animation) {
-
-                    }
-
-                    @Override
-                    public void onAnimationRepeat(Animator animation) {
-
-                    }
-                });
-                animatorSetFadeIn.start();
-            } else {
-                AnimatorSet animatorSetFadeOut = new AnimatorSet();
-                animatorSetFadeOut.setDuration(FADE_DURATION);
-                ObjectAnimator animatorTxtAlphaOut = ObjectAnimator.ofFloat(mTxtMonth, "alpha", mTxtMonth.getAlpha(), 0f);
-                ObjectAnimator animatorBackgroundAlphaOut = ObjectAnimator.ofFloat(mMonthBackground, "alpha", mMonthBackground.getAlpha(), 0f);
-                animatorSetFadeOut.playTogether(
-                        animatorTxtAlphaOut
-                        //animatorBackgroundAlphaOut
-                );
-                animatorSetFadeOut.addListener(new Animator.AnimatorListener() {
-                    @Override
-                    public void onAnimationStart(Animator animation) {
-
-                    }
-
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        setAlphaSet(false);
-                    }
-
-                    @Override
-                    public void onAnimationCancel(Animator animation) {
-
-                    }
-
-                    @Override
-                    public void onAnimationRepeat(Animator animation) {
-
-                    }
-                });
-                animatorSetFadeOut.start();
-            }
-
-            if (isAlphaSet()) {
-                //mMonthBackground.setAlpha(1f);
-                mTxtMonth.setAlpha(1f);
-            } else {
-                //mMonthBackground.setAlpha(0f);
-                mTxtMonth.setAlpha(0f);
+        /**
+         * Update the part of the row affected by a change of its week.
+         */
+        public void bindChange(WeekChange weekChange) {
+            switch (weekChange) {
+                case SELECTION:
+                case BADGES:
+                    mWeekRow.refreshDays();
+                    break;
+                case INDICATORS:
+                    mWeekRow.setIndicators(mDaySummary);
+                    break;
+                case EVENTS:
+                    mWeekRow.setIndicators(mDaySummary);
+                    mWeekRow.refreshDays();
+                    break;
             }
         }
     }
@@ -1,6 +1,9 @@
 package com.github.tibolte.agendacalendarview.models;
 
+import com.github.tibolte.agendacalendarview.utils.DateHelper;
+
 import java.util.Calendar;
+import java.util.TimeZone;
 
 /**
  * Event model class containing the information to be displayed on the agenda view.
@@ -32,7 +35,12 @@ public class BaseCalendarEvent implements CalendarEvent {
      */
     private String mLocation;
     /**
-     * Calendar instance helping sorting the events per section in the agenda view.
+     * Day of this instance, as the number of days since 1970-01-01, helping sorting the events per
+     * section in the agenda view.
+     */
+    private int mInstanceEpochDay;
+    /**
+     * Calendar instance of the instance day, only created when asked for.
      */
     private Calendar mInstanceDay;
     /**
@@ -61,6 +69,11 @@ public class BaseCalendarEvent implements CalendarEvent {
      * Duration of the event.
      */
     private String mDuration;
+    /**
+     * Recurrence of the event, null if it happens once. The start and end times are the ones of
+     * the first occurrence.
+     */
+    private RecurrenceRule mRecurrenceRule;
     /**
      * References to a DayItem instance for that event, used to link interaction between the
      * calendar view and the agenda view.
@@ -125,6 +138,45 @@ public class BaseCalendarEvent implements CalendarEvent {
         this.mEndTime.setTimeInMillis(dateEnd);
     }
 
+    /**
+     * Initializes a recurring event, as stored by the calendar provider.
+     *
+     * @param id          The id of the event.
+     * @param color       The color of the event.
+     * @param textColor   The color of the event description text.
+     * @param title       The title of the event.
+     * @param description The description of the event.
+     * @param location    The location of the event.
+     * @param dateStart   The start date of the first occurrence.
+     * @param dateEnd     The end date of the first occurrence, only used without a duration.
+     * @param allDay      Int that can be equal to 0 or 1.
+     * @param duration    The duration of each occurrence in RFC2445 format, or null.
+     * @param rrule       The recurrence rule in RFC2445 format, or null if the event happens once.
+     * @param exdate      The excluded occurrences in RFC2445 format, or null.
+     */
+    public BaseCalendarEvent(
+            long id,
+            int color,
+            int textColor,
+            String title,
+            String description,
+            String location,
+            long dateStart,
+            long dateEnd,
+            int allDay,
+            String duration,
+            String rrule,
+            String exdate
+    ) {
+        this(id, color, textColor, title, description, location, dateStart, dateEnd, allDay, duration);
+        if (duration != null) {
+            this.mEndTime.setTimeInMillis(dateStart + DateHelper.parseDuration(duration));
+        }
+        if (rrule != null) {
+            this.mRecurrenceRule = RecurrenceRule.parse(rrule, exdate);
+        }
+    }
+
     public BaseCalendarEvent() {
 
     }
@@ -190,6 +242,7 @@ public class BaseCalendarEvent implements CalendarEvent {
         this.mTextColor = calendarEvent.getTextColor();
         this.mAllDay = calendarEvent.isAllDay();
         this.mDuration = calendarEvent.getDuration();
+        this.mRecurrenceRule = calendarEvent.getRecurrenceRule();
         this.mTitle = calendarEvent.getTitle();
         this.mDescription = calendarEvent.getDescription();
         this.mLocation = calendarEvent.getLocation();
@@ -235,16 +288,24 @@ public class BaseCalendarEvent implements CalendarEvent {
     }
 
     public Calendar getInstanceDay() {
+        if (mInstanceDay == null) {
+            mInstanceDay = DateHelper.fromEpochDay(mInstanceEpochDay, TimeZone.getDefault());
+        }
         return mInstanceDay;
     }
 
     public void setInstanceDay(Calendar mInstanceDay) {
-        this.mInstanceDay = mInstanceDay;
-        this.mInstanceDay.set(Calendar.HOUR, 0);
-        this.mInstanceDay.set(Calendar.MINUTE, 0);
-        this.mInstanceDay.set(Calendar.SECOND, 0);
-        this.mInstanceDay.set(Calendar.MILLISECOND, 0);
-        this.mInstanceDay.set(Calendar.AM_PM, 0);
+        this.mInstanceEpochDay = DateHelper.toEpochDay(mInstanceDay);
+        this.mInstanceDay = null;
+    }
+
+    public int getInstanceEpochDay() {
+        return mInstanceEpochDay;
+    }
+
+    public void setInstanceEpochDay(int instanceEpochDay) {
+        this.mInstanceEpochDay = instanceEpochDay;
+        this.mInstanceDay = null;
     }
 
     public Calendar getEndTime() {
@@ -309,6 +370,14 @@ public class BaseCalendarEvent implements CalendarEvent {
         this.mDuration = duration;
     }
 
+    public RecurrenceRule getRecurrenceRule() {
+        return mRecurrenceRule;
+    }
+
+    public void setRecurrenceRule(RecurrenceRule recurrenceRule) {
+        this.mRecurrenceRule = recurrenceRule;
+    }
+
     public boolean isPlaceHolder() {
         return mPlaceHolder;
     }
@@ -370,7 +439,7 @@ public class BaseCalendarEvent implements CalendarEvent {
                 + "title='"
                 + mTitle
                 + ", instanceDay= "
-                + mInstanceDay.getTime()
+                + getInstanceDay().getTime()
                 + "}";
     }
 }
@@ -1,6 +1,9 @@
 package com.github.tibolte.agendacalendarview.models;
 
+import com.github.tibolte.agendacalendarview.utils.DateHelper;
+
 import java.util.Calendar;
+import java.util.TimeZone;
 
 public interface CalendarEvent {
 
@@ -49,6 +52,20 @@ public interface CalendarEvent {
 
     void setInstanceDay(Calendar mInstanceDay);
 
+    /**
+     * @return The instance day as the number of days since 1970-01-01, in its own time zone.
+     */
+    default int getInstanceEpochDay() {
+        return DateHelper.toEpochDay(getInstanceDay());
+    }
+
+    /**
+     * Set the instance day from the number of days since 1970-01-01.
+     */
+    default void setInstanceEpochDay(int instanceEpochDay) {
+        setInstanceDay(DateHelper.fromEpochDay(instanceEpochDay, TimeZone.getDefault()));
+    }
+
     IDayItem getDayReference();
 
     void setDayReference(IDayItem mDayReference);
@@ -60,4 +77,11 @@ public interface CalendarEvent {
     CalendarEvent copy();
 
     int getColor();
+
+    /**
+     * @return The recurrence of the event, null if it happens once.
+     */
+    default RecurrenceRule getRecurrenceRule() {
+        return null;
+    }
 }
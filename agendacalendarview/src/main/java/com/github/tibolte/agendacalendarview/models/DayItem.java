@@ -5,23 +5,35 @@ import com.github.tibolte.agendacalendarview.utils.DateHelper;
 
 import java.util.Calendar;
 import java.util.Date;
+import java.util.TimeZone;
 
 /**
  * Day model class.
  */
 public class DayItem implements IDayItem {
+    /**
+     * Number of days since 1970-01-01.
+     */
+    private int mEpochDay;
+    /**
+     * Date of the day, only created when asked for.
+     */
     private Date mDate;
     private int mValue;
     private int mDayOfTheWeek;
     private boolean mToday;
     private boolean mFirstDayOfTheMonth;
     private boolean mSelected;
+    /**
+     * Short month name, from the labels of the manager which built the day
+     */
     private String mMonth;
     private boolean mShowBadge;
 
     // region Constructor
 
     public DayItem(Date date, int value, boolean today, String month) {
+        this.mEpochDay = DateHelper.toEpochDay(date, TimeZone.getDefault());
         this.mDate = date;
         this.mValue = value;
         this.mToday = today;
@@ -33,13 +45,14 @@ public class DayItem implements IDayItem {
     }
     public DayItem(DayItem original) {
 
-        this.mDate = original.getDate();
+        this.mEpochDay = original.getEpochDay();
+        this.mDate = original.mDate;
         this.mValue = original.getValue();
         this.mToday = original.isToday();
         this.mDayOfTheWeek = original.getDayOftheWeek();
         this.mFirstDayOfTheMonth = original.isFirstDayOfTheMonth();
         this.mSelected = original.isSelected();
-        this.mMonth = original.getMonth();
+        this.mMonth = original.mMonth;
         this.mShowBadge = original.mShowBadge;
     }
     // endregion
@@ -47,13 +60,26 @@ public class DayItem implements IDayItem {
     // region Getters/Setters
 
     public Date getDate() {
+        if (mDate == null) {
+            mDate = DateHelper.fromEpochDay(mEpochDay, TimeZone.getDefault()).getTime();
+        }
         return mDate;
     }
 
     public void setDate(Date date) {
+        this.mEpochDay = DateHelper.toEpochDay(date, TimeZone.getDefault());
         this.mDate = date;
     }
 
+    public int getEpochDay() {
+        return mEpochDay;
+    }
+
+    public void setEpochDay(int epochDay) {
+        this.mEpochDay = epochDay;
+        this.mDate = null;
+    }
+
     public int getValue() {
         return mValue;
     }
@@ -112,13 +138,13 @@ public class DayItem implements IDayItem {
 
     // region Public methods
 
-    public void buildDayItemFromCal(Calendar calendar) {
-        Date date = calendar.getTime();
-        this.mDate = date;
+    public void buildDayItemFromCal(Calendar calendar, CalendarManager calendarManager) {
+        this.mEpochDay = DateHelper.toEpochDay(calendar);
+        this.mDate = null;
+        this.mMonth = calendarManager.getDateLabels().getMonthShortName(calendar.get(Calendar.MONTH));
 
         this.mValue = calendar.get(Calendar.DAY_OF_MONTH);
-        this.mToday = DateHelper.sameDate(calendar, CalendarManager.getInstance().getToday());
-        this.mMonth = CalendarManager.getInstance().getMonthHalfNameFormat().format(date);
+        this.mToday = mEpochDay == DateHelper.toEpochDay(calendarManager.getToday());
         if (this.mValue == 1) {
             this.mFirstDayOfTheMonth = true;
         }
@@ -130,7 +156,7 @@ public class DayItem implements IDayItem {
     public String toString() {
         return "DayItem{"
                 + "Date='"
-                + mDate.toString()
+                + getDate().toString()
                 + ", value="
                 + mValue
                 + '}';
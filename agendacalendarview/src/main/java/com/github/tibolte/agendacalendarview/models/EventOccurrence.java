@@ -0,0 +1,258 @@
+package com.github.tibolte.agendacalendarview.models;
+
+import com.github.tibolte.agendacalendarview.utils.DateHelper;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Occurrence of an event on one of the days it covers, as shown in the agenda view.
+ * It only holds its day and its references, everything else is read from the source event, so a
+ * multi-day event isn't copied for each of its days. The setters of these fields set them on the
+ * source event, so they change all its occurrences.
+ */
+public class EventOccurrence implements CalendarEvent {
+
+    /**
+     * Event this is an occurrence of.
+     */
+    private final CalendarEvent mEvent;
+    /**
+     * Day of this occurrence, as the number of days since 1970-01-01.
+     */
+    private int mInstanceEpochDay;
+    /**
+     * Calendar instance of the instance day, only created when asked for.
+     */
+    private Calendar mInstanceDay;
+    /**
+     * Number of days between the first occurrence of a recurring event and this one, 0 otherwise.
+     */
+    private final int mDayOffset;
+    /**
+     * Start and end times of this occurrence of a recurring event, only created when asked for.
+     */
+    private Calendar mStartTime;
+    private Calendar mEndTime;
+    private IDayItem mDayReference;
+    private IWeekItem mWeekReference;
+
+    // region Constructors
+
+    public EventOccurrence(CalendarEvent event, int instanceEpochDay) {
+        this(event, instanceEpochDay, 0);
+    }
+
+    /**
+     * @param event            The source event.
+     * @param instanceEpochDay The day this occurrence is shown on.
+     * @param dayOffset        The number of days between the first occurrence of the recurring
+     *                         source event and this one.
+     */
+    public EventOccurrence(CalendarEvent event, int instanceEpochDay, int dayOffset) {
+        this.mEvent = event;
+        this.mInstanceEpochDay = instanceEpochDay;
+        this.mDayOffset = dayOffset;
+    }
+
+    public EventOccurrence(EventOccurrence occurrence) {
+        this.mEvent = occurrence.getEvent();
+        this.mInstanceEpochDay = occurrence.getInstanceEpochDay();
+        this.mDayOffset = occurrence.getDayOffset();
+        this.mDayReference = occurrence.getDayReference();
+        this.mWeekReference = occurrence.getWeekReference();
+    }
+
+    // endregion
+
+    // region Getters/Setters
+
+    public CalendarEvent getEvent() {
+        return mEvent;
+    }
+
+    public void setPlaceholder(boolean placeholder) {
+        mEvent.setPlaceholder(placeholder);
+    }
+
+    public boolean isPlaceholder() {
+        return mEvent.isPlaceholder();
+    }
+
+    public String getLocation() {
+        return mEvent.getLocation();
+    }
+
+    public void setLocation(String mLocation) {
+        mEvent.setLocation(mLocation);
+    }
+
+    public long getId() {
+        return mEvent.getId();
+    }
+
+    public void setId(long mId) {
+        mEvent.setId(mId);
+    }
+
+    public boolean getShowBadge() {
+        return mEvent.getShowBadge();
+    }
+
+    public void setShowBadge(boolean mShowBadge) {
+        mEvent.setShowBadge(mShowBadge);
+    }
+
+    public int getTextColor() {
+        return mEvent.getTextColor();
+    }
+
+    public void setTextColor(int mTextColor) {
+        mEvent.setTextColor(mTextColor);
+    }
+
+    public String getDescription() {
+        return mEvent.getDescription();
+    }
+
+    public void setDescription(String mDescription) {
+        mEvent.setDescription(mDescription);
+    }
+
+    public boolean isAllDay() {
+        return mEvent.isAllDay();
+    }
+
+    public void setAllDay(boolean allDay) {
+        mEvent.setAllDay(allDay);
+    }
+
+    public int getDayOffset() {
+        return mDayOffset;
+    }
+
+    public Calendar getStartTime() {
+        if (mDayOffset == 0) {
+            return mEvent.getStartTime();
+        }
+        if (mStartTime == null) {
+            mStartTime = shift(mEvent.getStartTime(), mDayOffset);
+        }
+        return mStartTime;
+    }
+
+    /**
+     * Set the start time of this occurrence, moving the start time of the source event by as much.
+     */
+    public void setStartTime(Calendar mStartTime) {
+        mEvent.setStartTime(shift(mStartTime, -mDayOffset));
+        this.mStartTime = null;
+    }
+
+    public Calendar getEndTime() {
+        if (mDayOffset == 0) {
+            return mEvent.getEndTime();
+        }
+        if (mEndTime == null) {
+            mEndTime = shift(mEvent.getEndTime(), mDayOffset);
+        }
+        return mEndTime;
+    }
+
+    /**
+     * Set the end time of this occurrence, moving the end time of the source event by as much.
+     */
+    public void setEndTime(Calendar mEndTime) {
+        mEvent.setEndTime(shift(mEndTime, -mDayOffset));
+        this.mEndTime = null;
+    }
+
+    public String getTitle() {
+        return mEvent.getTitle();
+    }
+
+    public void setTitle(String mTitle) {
+        mEvent.setTitle(mTitle);
+    }
+
+    public Calendar getInstanceDay() {
+        if (mInstanceDay == null) {
+            mInstanceDay = DateHelper.fromEpochDay(mInstanceEpochDay, TimeZone.getDefault());
+        }
+        return mInstanceDay;
+    }
+
+    public void setInstanceDay(Calendar mInstanceDay) {
+        this.mInstanceEpochDay = DateHelper.toEpochDay(mInstanceDay);
+        this.mInstanceDay = null;
+    }
+
+    public int getInstanceEpochDay() {
+        return mInstanceEpochDay;
+    }
+
+    public void setInstanceEpochDay(int instanceEpochDay) {
+        this.mInstanceEpochDay = instanceEpochDay;
+        this.mInstanceDay = null;
+    }
+
+    public IDayItem getDayReference() {
+        return mDayReference;
+    }
+
+    public void setDayReference(IDayItem mDayReference) {
+        this.mDayReference = mDayReference;
+    }
+
+    public IWeekItem getWeekReference() {
+        return mWeekReference;
+    }
+
+    public void setWeekReference(IWeekItem mWeekReference) {
+        this.mWeekReference = mWeekReference;
+    }
+
+    public int getColor() {
+        return mEvent.getColor();
+    }
+
+    /**
+     * @return null, an occurrence happens once.
+     */
+    public RecurrenceRule getRecurrenceRule() {
+        return null;
+    }
+
+    @Override
+    public CalendarEvent copy() {
+        return new EventOccurrence(this);
+    }
+
+    // endregion
+
+    // region Private methods
+
+    /**
+     * Move a time by a number of days, keeping the local time of day.
+     */
+    private static Calendar shift(Calendar time, int days) {
+        if (time == null || days == 0) {
+            return time;
+        }
+        Calendar shifted = (Calendar) time.clone();
+        shifted.add(Calendar.DATE, days);
+        return shifted;
+    }
+
+    // endregion
+
+    @Override
+    public String toString() {
+        return "EventOccurrence{"
+                + "title='"
+                + getTitle()
+                + ", instanceDay= "
+                + getInstanceDay().getTime()
+                + "}";
+    }
+}
@@ -1,5 +1,7 @@
 package com.github.tibolte.agendacalendarview.models;
 
+import com.github.tibolte.agendacalendarview.CalendarManager;
+
 import java.util.Calendar;
 import java.util.Date;
 
@@ -11,6 +13,10 @@ public interface IDayItem {
 
     void setDate(Date date);
 
+    int getEpochDay();
+
+    void setEpochDay(int epochDay);
+
     int getValue();
 
     void setValue(int value);
@@ -37,7 +43,13 @@ public interface IDayItem {
 
     // endregion
 
-    void buildDayItemFromCal(Calendar calendar);
+    /**
+     * Set up the day from a date.
+     *
+     * @param calendar        The date of the day.
+     * @param calendarManager The manager building the day, giving today's date and the formats.
+     */
+    void buildDayItemFromCal(Calendar calendar, CalendarManager calendarManager);
 
     String toString();
 
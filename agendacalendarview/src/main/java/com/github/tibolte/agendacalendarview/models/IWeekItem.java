@@ -6,6 +6,10 @@ import java.util.List;
 public interface IWeekItem {
 
 
+    int getWeekIndex();
+
+    void setWeekIndex(int weekIndex);
+
     int getWeekInYear();
 
     void setWeekInYear(int weekInYear);
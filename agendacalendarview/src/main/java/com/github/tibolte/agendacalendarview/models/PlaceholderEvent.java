@@ -0,0 +1,57 @@
+package com.github.tibolte.agendacalendarview.models;
+
+/**
+ * Placeholder shown in the agenda view for a day without events.
+ * All the placeholders of a calendar are occurrences of one template holding what is displayed
+ * (title, colors...), each one only holds its day.
+ */
+public class PlaceholderEvent extends EventOccurrence {
+
+    // region Constructors
+
+    public PlaceholderEvent(CalendarEvent template, int instanceEpochDay) {
+        super(template, instanceEpochDay);
+    }
+
+    public PlaceholderEvent(PlaceholderEvent placeholder) {
+        super(placeholder);
+    }
+
+    // endregion
+
+    // region Getters/Setters
+
+    /**
+     * @return The event shared by all the placeholders, same as {@link #getEvent()}.
+     */
+    public CalendarEvent getTemplate() {
+        return getEvent();
+    }
+
+    @Override
+    public boolean isPlaceholder() {
+        return true;
+    }
+
+    @Override
+    public boolean getShowBadge() {
+        return false;
+    }
+
+    @Override
+    public CalendarEvent copy() {
+        return new PlaceholderEvent(this);
+    }
+
+    // endregion
+
+    @Override
+    public String toString() {
+        return "PlaceholderEvent{"
+                + "title='"
+                + getTitle()
+                + ", instanceDay= "
+                + getInstanceDay().getTime()
+                + "}";
+    }
+}
@@ -0,0 +1,385 @@
+package com.github.tibolte.agendacalendarview.models;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Recurrence of an event, a subset of the RFC 2445 RRULE and EXDATE properties: DAILY, WEEKLY
+ * (with BYDAY and WKST) and MONTHLY (on the day of month of the first occurrence) frequencies,
+ * with INTERVAL, COUNT and UNTIL.
+ * The rule is stored once and only tells on which days an occurrence starts, the occurrences are
+ * created for the days being displayed.
+ */
+public class RecurrenceRule {
+
+    public static final int DAILY = 0;
+    public static final int WEEKLY = 1;
+    public static final int MONTHLY = 2;
+
+    /**
+     * Returned when the recurrence has no end.
+     */
+    public static final int NO_END = Integer.MAX_VALUE;
+
+    private static final String[] WEEK_DAYS = {"SU", "MO", "TU", "WE", "TH", "FR", "SA"};
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    /**
+     * DAILY, WEEKLY or MONTHLY.
+     */
+    private final int mFrequency;
+    /**
+     * Number of days, weeks or months between two occurrences.
+     */
+    private final int mInterval;
+    /**
+     * Maximum number of occurrences, 0 if not limited.
+     */
+    private final int mCount;
+    /**
+     * Epoch day of the last possible occurrence, NO_END if not limited.
+     */
+    private final int mUntilDay;
+    /**
+     * Days of the week of a weekly recurrence, one bit per Calendar.DAY_OF_WEEK value, 0 for the
+     * day of the first occurrence.
+     */
+    private final int mWeekDays;
+    /**
+     * First day of the week, as a Calendar.DAY_OF_WEEK value.
+     */
+    private final int mWeekStart;
+    /**
+     * Sorted epoch days of the excluded occurrences.
+     */
+    private final int[] mExceptionDays;
+
+    // region Constructors
+
+    public RecurrenceRule(int frequency, int interval, int count, int untilDay, int weekDays, int weekStart, int[] exceptionDays) {
+        if (frequency < DAILY || frequency > MONTHLY) {
+            throw new IllegalArgumentException("Unknown frequency " + frequency + ".");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("interval must be positive.");
+        }
+        this.mFrequency = frequency;
+        this.mInterval = interval;
+        this.mCount = count;
+        this.mUntilDay = untilDay;
+        this.mWeekDays = weekDays;
+        this.mWeekStart = weekStart;
+        this.mExceptionDays = exceptionDays != null ? exceptionDays.clone() : new int[0];
+        Arrays.sort(this.mExceptionDays);
+    }
+
+    /**
+     * Parse a recurrence rule.
+     *
+     * @param rrule  The RRULE value, for example "FREQ=WEEKLY;BYDAY=MO,WE;UNTIL=20210625".
+     * @param exdate The EXDATE value, a comma separated list of dates, or null.
+     * @return The recurrence rule.
+     * @throws IllegalArgumentException if the rule is malformed or uses an unsupported part.
+     */
+    public static RecurrenceRule parse(String rrule, String exdate) {
+        if (rrule == null) {
+            throw new IllegalArgumentException("rrule is null.");
+        }
+        int frequency = -1;
+        int interval = 1;
+        int count = 0;
+        int untilDay = NO_END;
+        int weekDays = 0;
+        int weekStart = Calendar.MONDAY;
+
+        for (String part : rrule.split(";")) {
+            int separator = part.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed rule part " + part + ".");
+            }
+            String name = part.substring(0, separator).trim().toUpperCase();
+            String value = part.substring(separator + 1).trim().toUpperCase();
+            switch (name) {
+                case "FREQ":
+                    if (value.equals("DAILY")) {
+                        frequency = DAILY;
+                    } else if (value.equals("WEEKLY")) {
+                        frequency = WEEKLY;
+                    } else if (value.equals("MONTHLY")) {
+                        frequency = MONTHLY;
+                    } else {
+                        throw new IllegalArgumentException("Unsupported frequency " + value + ".");
+                    }
+                    break;
+                case "INTERVAL":
+                    interval = Integer.parseInt(value);
+                    break;
+                case "COUNT":
+                    count = Integer.parseInt(value);
+                    break;
+                case "UNTIL":
+                    untilDay = parseDate(value);
+                    break;
+                case "BYDAY":
+                    for (String day : value.split(",")) {
+                        weekDays |= 1 << parseWeekDay(day);
+                    }
+                    break;
+                case "WKST":
+                    weekStart = parseWeekDay(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported rule part " + name + ".");
+            }
+        }
+        if (frequency < 0) {
+            throw new IllegalArgumentException("FREQ is missing.");
+        }
+        if (weekDays != 0 && frequency != WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported for weekly rules.");
+        }
+
+        int[] exceptionDays = new int[0];
+        if (exdate != null && exdate.trim().length() > 0) {
+            String[] dates = exdate.split(",");
+            exceptionDays = new int[dates.length];
+            for (int i = 0; i < dates.length; i++) {
+                exceptionDays[i] = parseDate(dates[i].trim());
+            }
+        }
+        return new RecurrenceRule(frequency, interval, count, untilDay, weekDays, weekStart, exceptionDays);
+    }
+
+    // endregion
+
+    // region Public methods
+
+    public int getFrequency() {
+        return mFrequency;
+    }
+
+    public int getInterval() {
+        return mInterval;
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    public int getUntilDay() {
+        return mUntilDay;
+    }
+
+    public int getWeekDays() {
+        return mWeekDays;
+    }
+
+    public int getWeekStart() {
+        return mWeekStart;
+    }
+
+    public int[] getExceptionDays() {
+        return mExceptionDays.clone();
+    }
+
+    /**
+     * Check if an occurrence starts on a day.
+     *
+     * @param startDay The epoch day of the first occurrence.
+     * @param epochDay The day to check.
+     * @return True if an occurrence starts on that day.
+     */
+    public boolean occursOn(int startDay, int epochDay) {
+        if (epochDay < startDay || epochDay > mUntilDay) {
+            return false;
+        }
+        int number;
+        switch (mFrequency) {
+            case DAILY:
+                if ((epochDay - startDay) % mInterval != 0) {
+                    return false;
+                }
+                number = (epochDay - startDay) / mInterval + 1;
+                break;
+            case WEEKLY:
+                int weekDays = getWeekDays(startDay);
+                if ((weekDays & (1 << getDayOfWeek(epochDay))) == 0) {
+                    return false;
+                }
+                int week = (getWeekStartDay(epochDay) - getWeekStartDay(startDay)) / 7;
+                if (week % mInterval != 0) {
+                    return false;
+                }
+                number = week / mInterval * Integer.bitCount(weekDays)
+                        + countWeekDays(weekDays, getWeekStartDay(epochDay), epochDay + 1)
+                        - countWeekDays(weekDays, getWeekStartDay(startDay), startDay);
+                break;
+            default:
+                // probed for every day shown, so computed without allocating Calendars
+                int start = getMonthAndDay(startDay);
+                int day = getMonthAndDay(epochDay);
+                if (day % 32 != start % 32) {
+                    return false;
+                }
+                int months = day / 32 - start / 32;
+                if (months % mInterval != 0) {
+                    return false;
+                }
+                number = countMonths(start / 32, months / mInterval, start % 32);
+                break;
+        }
+        if (mCount > 0 && number > mCount) {
+            return false;
+        }
+        return Arrays.binarySearch(mExceptionDays, epochDay) < 0;
+    }
+
+    /**
+     * Get a day after which no occurrence starts. With COUNT it is an upper bound, not the exact
+     * day of the last occurrence.
+     *
+     * @param startDay The epoch day of the first occurrence.
+     * @return The epoch day, NO_END if the recurrence has no end.
+     */
+    public int getLastStartBound(int startDay) {
+        if (mCount <= 0) {
+            return mUntilDay;
+        }
+        long bound;
+        switch (mFrequency) {
+            case DAILY:
+                bound = startDay + (long) (mCount - 1) * mInterval;
+                break;
+            case WEEKLY:
+                int perWeek = Integer.bitCount(getWeekDays(startDay));
+                bound = getWeekStartDay(startDay) + ((long) (mCount + 6) / perWeek + 1) * 7 * mInterval;
+                break;
+            default:
+                // months too short for the day of month are skipped, down to 1 in 8 years for
+                // a start on february 29 with a yearly interval
+                int months = getMonthAndDay(startDay) % 32 > 28 ? 8 * mCount : mCount;
+                bound = startDay + (long) months * mInterval * 31;
+                break;
+        }
+        return (int) Math.min(bound, mUntilDay);
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private int getWeekDays(int startDay) {
+        return mWeekDays != 0 ? mWeekDays : 1 << getDayOfWeek(startDay);
+    }
+
+    /**
+     * @return The Calendar.DAY_OF_WEEK value of an epoch day, 1970-01-01 being a thursday.
+     */
+    private static int getDayOfWeek(int epochDay) {
+        return ((epochDay + 4) % 7 + 7) % 7 + Calendar.SUNDAY;
+    }
+
+    private int getWeekStartDay(int epochDay) {
+        return epochDay - (getDayOfWeek(epochDay) - mWeekStart + 7) % 7;
+    }
+
+    /**
+     * Count the days of the mask between two days of the same week.
+     */
+    private static int countWeekDays(int weekDays, int fromDay, int toDay) {
+        int count = 0;
+        for (int day = fromDay; day < toDay; day++) {
+            if ((weekDays & (1 << getDayOfWeek(day))) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count the months holding an occurrence of a monthly recurrence, up to a given one: the
+     * months too short for the day of month have none.
+     *
+     * @param startMonth The month of the first occurrence, as year * 12 + month.
+     * @param steps      The number of intervals from the first occurrence to the last month.
+     * @param dayOfMonth The day of month of the occurrences.
+     */
+    private int countMonths(int startMonth, int steps, int dayOfMonth) {
+        if (dayOfMonth <= 28) {
+            return steps + 1;
+        }
+        int count = 0;
+        for (int step = 0; step <= steps; step++) {
+            if (getMonthLength(startMonth + step * mInterval) >= dayOfMonth) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param month The month, as year * 12 + month.
+     * @return The number of days of the month.
+     */
+    private static int getMonthLength(int month) {
+        int year = month / 12;
+        switch (month % 12) {
+            case Calendar.FEBRUARY:
+                return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case Calendar.APRIL:
+            case Calendar.JUNE:
+            case Calendar.SEPTEMBER:
+            case Calendar.NOVEMBER:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Convert an epoch day to its civil date, in the proleptic Gregorian calendar.
+     *
+     * @return The month count since year 0 (year * 12 + month, month from 0) times 32, plus the
+     * day of month.
+     */
+    private static int getMonthAndDay(int epochDay) {
+        // days since 0000-03-01, counted in 400 years eras, so the leap day ends each year
+        int days = epochDay + 719468;
+        int era = (days >= 0 ? days : days - 146096) / 146097;
+        int dayOfEra = days - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        // month from march
+        int marchMonth = (5 * dayOfYear + 2) / 153;
+        int dayOfMonth = dayOfYear - (153 * marchMonth + 2) / 5 + 1;
+        int months = (era * 400 + yearOfEra) * 12 + marchMonth + 2;
+        return months * 32 + dayOfMonth;
+    }
+
+    /**
+     * Parse the date part of a RFC 2445 date or date-time, like 20210625 or 20210625T120000Z.
+     */
+    private static int parseDate(String value) {
+        if (value.length() < 8) {
+            throw new IllegalArgumentException("Malformed date " + value + ".");
+        }
+        Calendar cal = Calendar.getInstance(UTC);
+        cal.clear();
+        cal.set(Integer.parseInt(value.substring(0, 4)),
+                Integer.parseInt(value.substring(4, 6)) - 1,
+                Integer.parseInt(value.substring(6, 8)));
+        return (int) (cal.getTimeInMillis() / (24 * 60 * 60 * 1000L));
+    }
+
+    private static int parseWeekDay(String value) {
+        for (int i = 0; i < WEEK_DAYS.length; i++) {
+            if (WEEK_DAYS[i].equals(value)) {
+                return Calendar.SUNDAY + i;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported week day " + value + ".");
+    }
+
+    // endregion
+}
@@ -7,6 +7,7 @@ import java.util.List;
  * Week model class.
  */
 public class WeekItem implements IWeekItem {
+    private int mWeekIndex;
     private int mWeekInYear;
     private int mYear;
     private int mMonth;
@@ -24,6 +25,7 @@ public class WeekItem implements IWeekItem {
         this.mMonth = month;
     }
     public WeekItem(WeekItem original) {
+        this.mWeekIndex = original.getWeekIndex();
         this.mWeekInYear = original.getWeekInYear();
         this.mYear = original.getYear();
         this.mMonth = original.getMonth();
@@ -40,6 +42,17 @@ public class WeekItem implements IWeekItem {
 
     // region Getters/Setters
 
+    /**
+     * @return The position of the week in the calendar.
+     */
+    public int getWeekIndex() {
+        return mWeekIndex;
+    }
+
+    public void setWeekIndex(int weekIndex) {
+        this.mWeekIndex = weekIndex;
+    }
+
     public int getWeekInYear() {
         return mWeekInYear;
     }
@@ -1,6 +1,8 @@
 package com.github.tibolte.agendacalendarview.render;
 
+import android.content.res.ColorStateList;
 import android.graphics.Color;
+import android.graphics.drawable.Drawable;
 import android.view.View;
 import android.widget.LinearLayout;
 import android.widget.TextView;
@@ -10,39 +12,51 @@ import androidx.cardview.widget.CardView;
 
 import com.github.tibolte.agendacalendarview.R;
 import com.github.tibolte.agendacalendarview.models.BaseCalendarEvent;
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+
+import java.util.List;
 
 /**
  * Class helping to inflate our default layout in the AgendaAdapter
  */
-public class DefaultEventRenderer extends EventRenderer<BaseCalendarEvent> {
+public class DefaultEventRenderer extends HolderEventRenderer<BaseCalendarEvent, DefaultEventRenderer.ViewHolder> {
 
-    // region class - EventRenderer
+    // region class - HolderEventRenderer
 
     @Override
-    public void render(@NonNull View view, @NonNull BaseCalendarEvent event) {
-        CardView card = view.findViewById(R.id.view_agenda_event_card_view);
-        TextView txtTitle = view.findViewById(R.id.view_agenda_event_title);
-        TextView txtLocation = view.findViewById(R.id.view_agenda_event_location);
-        LinearLayout descriptionContainer = view.findViewById(R.id.view_agenda_event_description_container);
-        LinearLayout locationContainer = view.findViewById(R.id.view_agenda_event_location_container);
+    public ViewHolder onCreate(@NonNull View view) {
+        return new ViewHolder(view);
+    }
 
-        descriptionContainer.setVisibility(View.VISIBLE);
+    @Override
+    public void onBind(@NonNull ViewHolder holder, @NonNull BaseCalendarEvent event, @NonNull CalendarEvent occurrence, @NonNull List<Object> payloads) {
+        CardView card = holder.mCard;
+        holder.mDescriptionContainer.setVisibility(View.VISIBLE);
 
-        txtTitle.setText(event.getTitle());
-        txtLocation.setText(event.getLocation());
+        holder.mTxtTitle.setText(event.getTitle());
         if (event.getLocation().length() > 0) {
-            locationContainer.setVisibility(View.VISIBLE);
-            txtLocation.setText(event.getLocation());
+            holder.mLocationContainer.setVisibility(View.VISIBLE);
+            holder.mTxtLocation.setText(event.getLocation());
         } else {
-            locationContainer.setVisibility(View.GONE);
+            holder.mLocationContainer.setVisibility(View.GONE);
         }
 
-        if (!event.isPlaceholder()/*!event.getTitle().equals(view.getResources().getString(R.string.agenda_event_no_events))*/) {
-            txtTitle.setTextColor(event.getTextColor());
-            txtLocation.setTextColor(event.getTextColor());
+        if (!event.isPlaceholder()) {
+            if (holder.mPlaceholder) {
+                // the row showed a placeholder before being recycled
+                holder.mPlaceholder = false;
+                card.setBackgroundDrawable(holder.mCardBackground);
+                card.setRadius(holder.mCardRadius);
+                card.setCardElevation(holder.mCardElevation);
+            }
+            holder.mTxtTitle.setTextColor(event.getTextColor());
+            holder.mTxtLocation.setTextColor(event.getTextColor());
             card.setCardBackgroundColor(event.getColor());
-        }
-        else {
+        } else if (!holder.mPlaceholder) {
+            holder.mPlaceholder = true;
+            // the row may have shown an event with its own text color
+            holder.mTxtTitle.setTextColor(holder.mTitleColors);
+            holder.mTxtLocation.setTextColor(holder.mLocationColors);
             card.setCardBackgroundColor(Color.TRANSPARENT);
             card.setCardElevation(0);
             card.setBackgroundColor(Color.TRANSPARENT);
@@ -57,4 +71,41 @@ public class DefaultEventRenderer extends EventRenderer<BaseCalendarEvent> {
     }
 
     // endregion
+
+    // region Class - ViewHolder
+
+    /**
+     * Views of a row, and the look of its card and texts before it shows a placeholder.
+     */
+    public static class ViewHolder {
+        private final CardView mCard;
+        private final TextView mTxtTitle;
+        private final TextView mTxtLocation;
+        private final LinearLayout mDescriptionContainer;
+        private final LinearLayout mLocationContainer;
+        private final Drawable mCardBackground;
+        private final float mCardRadius;
+        private final float mCardElevation;
+        private final ColorStateList mTitleColors;
+        private final ColorStateList mLocationColors;
+        /**
+         * True while the card is cleared for a placeholder
+         */
+        private boolean mPlaceholder;
+
+        ViewHolder(View view) {
+            mCard = view.findViewById(R.id.view_agenda_event_card_view);
+            mTxtTitle = view.findViewById(R.id.view_agenda_event_title);
+            mTxtLocation = view.findViewById(R.id.view_agenda_event_location);
+            mDescriptionContainer = view.findViewById(R.id.view_agenda_event_description_container);
+            mLocationContainer = view.findViewById(R.id.view_agenda_event_location_container);
+            mCardBackground = mCard.getBackground();
+            mCardRadius = mCard.getRadius();
+            mCardElevation = mCard.getCardElevation();
+            mTitleColors = mTxtTitle.getTextColors();
+            mLocationColors = mTxtLocation.getTextColors();
+        }
+    }
+
+    // endregion
 }
@@ -6,18 +6,98 @@ import android.view.View;
 import com.github.tibolte.agendacalendarview.models.CalendarEvent;
 
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
- * Base class for helping layout rendering
+ * Base class for helping layout rendering. Renderers looking up the views of their rows should
+ * extend {@link HolderEventRenderer} instead, which keeps them between binds.
  */
 public abstract class EventRenderer<T extends CalendarEvent> {
+
+    /**
+     * Read from the type argument once
+     */
+    private Class<T> mRenderType;
+
     public abstract void render(final View view, final T event);
 
+    /**
+     * Render one occurrence of an event in the agenda. Events covering several days are shown once
+     * per day, override this to render something depending on the day of the occurrence.
+     *
+     * @param view       The view to fill.
+     * @param event      The source event.
+     * @param occurrence The occurrence, holding the day it is shown on.
+     */
+    public void render(final View view, final T event, final CalendarEvent occurrence) {
+        render(view, event);
+    }
+
+    /**
+     * Called once for each row created for this renderer.
+     *
+     * @param view The row.
+     * @return What the binds of the row need, given back to {@link #bind}, null by default.
+     */
+    public Object createHolder(final View view) {
+        return null;
+    }
+
+    /**
+     * Bind a row to an occurrence. By default the row is rendered again entirely, whatever the
+     * payloads.
+     *
+     * @param view       The row.
+     * @param holder     The holder created for the row.
+     * @param event      The source event.
+     * @param occurrence The occurrence, holding the day it is shown on.
+     * @param payloads   The payloads of a partial change of the row, empty to bind it entirely.
+     */
+    public void bind(final View view, final Object holder, final T event, final CalendarEvent occurrence, final List<Object> payloads) {
+        render(view, event, occurrence);
+    }
+
     @LayoutRes
     public abstract int getEventLayout();
 
+    /**
+     * @return The class of the events rendered, the type argument given to EventRenderer by the
+     * renderer or one of its superclasses.
+     */
     public Class<T> getRenderType() {
-        ParameterizedType type = (ParameterizedType) getClass().getGenericSuperclass();
-        return (Class<T>) type.getActualTypeArguments()[0];
+        if (mRenderType == null) {
+            // follow the type arguments from the renderer up to EventRenderer
+            Map<TypeVariable<?>, Type> arguments = new HashMap<>();
+            Class<?> cls = getClass();
+            while (cls != EventRenderer.class) {
+                Type type = cls.getGenericSuperclass();
+                Class<?> superclass = cls.getSuperclass();
+                if (type instanceof ParameterizedType) {
+                    Type[] typeArguments = ((ParameterizedType) type).getActualTypeArguments();
+                    TypeVariable<?>[] typeParameters = superclass.getTypeParameters();
+                    for (int i = 0; i < typeParameters.length; i++) {
+                        Type argument = typeArguments[i];
+                        if (arguments.containsKey(argument)) {
+                            argument = arguments.get(argument);
+                        }
+                        arguments.put(typeParameters[i], argument);
+                    }
+                }
+                cls = superclass;
+            }
+            Type renderType = arguments.get(EventRenderer.class.getTypeParameters()[0]);
+            if (renderType instanceof ParameterizedType) {
+                renderType = ((ParameterizedType) renderType).getRawType();
+            }
+            if (!(renderType instanceof Class)) {
+                throw new IllegalArgumentException("Render type of " + getClass().getName() + " is not a class, override getRenderType().");
+            }
+            mRenderType = (Class<T>) renderType;
+        }
+        return mRenderType;
     }
 }
@@ -0,0 +1,64 @@
+package com.github.tibolte.agendacalendarview.render;
+
+import android.view.View;
+
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Renderer split in two phases, like a RecyclerView.ViewHolder: {@link #onCreate} runs once per
+ * row and keeps its child views and resources in a holder, {@link #onBind} fills the holder for
+ * each occurrence, so binding a row doesn't look up its views again.
+ *
+ * @param <T> The class of the events rendered.
+ * @param <H> The class of the holder of a row.
+ */
+public abstract class HolderEventRenderer<T extends CalendarEvent, H> extends EventRenderer<T> {
+
+    /**
+     * Create the holder of a new row.
+     *
+     * @param view The row, inflated from {@link #getEventLayout()}.
+     * @return The holder, kept with the row.
+     */
+    public abstract H onCreate(final View view);
+
+    /**
+     * Bind the holder of a row to an occurrence.
+     *
+     * @param holder     The holder of the row.
+     * @param event      The source event.
+     * @param occurrence The occurrence, holding the day it is shown on.
+     * @param payloads   The payloads of a partial change of the row, empty to bind it entirely.
+     */
+    public abstract void onBind(final H holder, final T event, final CalendarEvent occurrence, final List<Object> payloads);
+
+    // region Class - EventRenderer
+
+    @Override
+    public final Object createHolder(final View view) {
+        return onCreate(view);
+    }
+
+    @Override
+    public final void bind(final View view, final Object holder, final T event, final CalendarEvent occurrence, final List<Object> payloads) {
+        onBind((H) holder, event, occurrence, payloads);
+    }
+
+    /**
+     * Render a row without a holder, it is created for this call only.
+     */
+    @Override
+    public void render(final View view, final T event, final CalendarEvent occurrence) {
+        onBind(onCreate(view), event, occurrence, Collections.emptyList());
+    }
+
+    @Override
+    public void render(final View view, final T event) {
+        render(view, event, event);
+    }
+
+    // endregion
+}
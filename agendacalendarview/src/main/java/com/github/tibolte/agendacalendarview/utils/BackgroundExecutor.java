@@ -0,0 +1,98 @@
+package com.github.tibolte.agendacalendarview.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the work moved off the main thread. Each kind of work has its own single background
+ * thread, created when first used and shared by all the views, so the tasks of a kind run in
+ * order and don't hold back the other kinds.
+ */
+public class BackgroundExecutor {
+
+    /**
+     * Work of the adapters, like computing the difference between two versions of their lists
+     */
+    private static final int ADAPTERS = 0;
+    /**
+     * Builds of the calendars of AgendaCalendarView.initAsync
+     */
+    private static final int INIT = 1;
+    /**
+     * Queries of the event sources
+     */
+    private static final int EVENT_SOURCE = 2;
+    /**
+     * Inflations of the rows prefetched ahead of time, at the lowest priority so they don't
+     * compete with the main thread and the other kinds
+     */
+    private static final int PREFETCH = 3;
+
+    private static final ExecutorService[] sExecutors = new ExecutorService[4];
+    private static Handler sMainHandler;
+
+    // region Public methods
+
+    /**
+     * Run a task of an adapter on the background thread.
+     */
+    public static void execute(Runnable task) {
+        getExecutor(ADAPTERS).execute(task);
+    }
+
+    /**
+     * Get the executor building the calendars of initAsync.
+     */
+    public static ExecutorService getInitExecutor() {
+        return getExecutor(INIT);
+    }
+
+    /**
+     * Get the executor querying the event sources, so the queries don't hold back the builds of
+     * initAsync.
+     */
+    public static ExecutorService getEventSourceExecutor() {
+        return getExecutor(EVENT_SOURCE);
+    }
+
+    /**
+     * Run an inflation of a prefetched row on its low priority background thread.
+     */
+    public static void prefetch(Runnable task) {
+        getExecutor(PREFETCH).execute(task);
+    }
+
+    /**
+     * Run a task on the main thread, with the result of a background task for example.
+     */
+    public static synchronized void post(Runnable task) {
+        if (sMainHandler == null) {
+            sMainHandler = new Handler(Looper.getMainLooper());
+        }
+        sMainHandler.post(task);
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private static synchronized ExecutorService getExecutor(int kind) {
+        if (sExecutors[kind] == null) {
+            if (kind == PREFETCH) {
+                sExecutors[kind] = Executors.newSingleThreadExecutor(task -> {
+                    Thread thread = new Thread(task, "ViewPrefetcher");
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+            } else {
+                sExecutors[kind] = Executors.newSingleThreadExecutor();
+            }
+        }
+        return sExecutors[kind];
+    }
+
+    // endregion
+}
@@ -5,23 +5,13 @@ import rx.subjects.PublishSubject;
 import rx.subjects.SerializedSubject;
 import rx.subjects.Subject;
 
+/**
+ * Bus of the events of a calendar, each CalendarManager and each view has its own.
+ */
 public class BusProvider {
 
-    public static BusProvider mInstance;
-
     private final Subject<Object, Object> mBus = new SerializedSubject<>(PublishSubject.create());
 
-    // region Constructors
-
-    public static BusProvider getInstance() {
-        if (mInstance == null) {
-            mInstance = new BusProvider();
-        }
-        return mInstance;
-    }
-
-    // endregion
-
     // region Public methods
 
     public void send(Object object) {
@@ -1,16 +1,14 @@
 package com.github.tibolte.agendacalendarview.utils;
 
-import com.github.tibolte.agendacalendarview.CalendarManager;
 import com.github.tibolte.agendacalendarview.R;
 import com.github.tibolte.agendacalendarview.models.IWeekItem;
 
 import android.content.Context;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
+import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -18,8 +16,74 @@ import java.util.concurrent.TimeUnit;
  */
 public class DateHelper {
 
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
     // region Public methods
 
+    /**
+     * Convert a point in time to the number of days since 1970-01-01 in the given time zone.
+     *
+     * @param millis   The time in milliseconds since the epoch.
+     * @param timeZone The time zone used to find the local day.
+     * @return The local epoch day.
+     */
+    public static int toEpochDay(long millis, TimeZone timeZone) {
+        long local = millis + timeZone.getOffset(millis);
+        long day = local / DAY_MILLIS;
+        if (local % DAY_MILLIS < 0) {
+            day--;
+        }
+        return (int) day;
+    }
+
+    /**
+     * Convert a Date instance to its local epoch day.
+     *
+     * @param date     The Date instance.
+     * @param timeZone The time zone used to find the local day.
+     * @return The local epoch day.
+     */
+    public static int toEpochDay(Date date, TimeZone timeZone) {
+        return toEpochDay(date.getTime(), timeZone);
+    }
+
+    /**
+     * Convert a Calendar instance to its local epoch day, using the Calendar's own time zone.
+     *
+     * @param cal The Calendar instance.
+     * @return The local epoch day.
+     */
+    public static int toEpochDay(Calendar cal) {
+        return toEpochDay(cal.getTimeInMillis(), cal.getTimeZone());
+    }
+
+    /**
+     * Check if a time is exactly at the start of its local day.
+     *
+     * @param millis   The time in milliseconds since the epoch.
+     * @param timeZone The time zone used to find the local day.
+     * @return True if the time is local midnight.
+     */
+    public static boolean isStartOfDay(long millis, TimeZone timeZone) {
+        long local = millis + timeZone.getOffset(millis);
+        return local % DAY_MILLIS == 0;
+    }
+
+    /**
+     * Create a Calendar instance at the start of a local epoch day.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @param timeZone The time zone of the created Calendar.
+     * @return The Calendar instance, at midnight.
+     */
+    public static Calendar fromEpochDay(int epochDay, TimeZone timeZone) {
+        Calendar calendar = Calendar.getInstance(timeZone);
+        calendar.clear();
+        calendar.set(1970, Calendar.JANUARY, 1);
+        calendar.add(Calendar.DATE, epochDay);
+        return calendar;
+    }
+
     /**
      * Check if two Calendar instances have the same time (by month, year and day of month)
      *
@@ -28,9 +92,7 @@ public class DateHelper {
      * @return True if both instances have the same time.
      */
     public static boolean sameDate(Calendar cal, Calendar selectedDate) {
-        return cal.get(Calendar.MONTH) == selectedDate.get(Calendar.MONTH)
-                && cal.get(Calendar.YEAR) == selectedDate.get(Calendar.YEAR)
-                && cal.get(Calendar.DAY_OF_MONTH) == selectedDate.get(Calendar.DAY_OF_MONTH);
+        return toEpochDay(cal) == toEpochDay(selectedDate);
     }
 
     /**
@@ -42,11 +104,7 @@ public class DateHelper {
      * @return True if both have the same time.
      */
     public static boolean sameDate(Calendar cal, Date selectedDate) {
-        Calendar selectedCal = Calendar.getInstance();
-        selectedCal.setTime(selectedDate);
-        return cal.get(Calendar.MONTH) == selectedCal.get(Calendar.MONTH)
-                && cal.get(Calendar.YEAR) == selectedCal.get(Calendar.YEAR)
-                && cal.get(Calendar.DAY_OF_MONTH) == selectedCal.get(Calendar.DAY_OF_MONTH);
+        return toEpochDay(cal) == toEpochDay(selectedDate, TimeZone.getDefault());
     }
 
     /**
@@ -72,7 +130,75 @@ public class DateHelper {
      * @return True if both instances are in the same week.
      */
     public static boolean sameWeek(Calendar cal, IWeekItem week) {
-        return (cal.get(Calendar.WEEK_OF_YEAR) == week.getWeekInYear() && cal.get(Calendar.YEAR) == week.getYear());
+        return sameWeek(toEpochDay(cal), week);
+    }
+
+    /**
+     * Check if an epoch day is in the same week, as the WeekItem instance.
+     *
+     * @param epochDay The day to verify.
+     * @param week     The WeekItem instance to compare to.
+     * @return True if the day is one of the days of the week.
+     */
+    public static boolean sameWeek(int epochDay, IWeekItem week) {
+        int firstDay = week.getDayItems().get(0).getEpochDay();
+        return epochDay >= firstDay && epochDay < firstDay + 7;
+    }
+
+    /**
+     * Parse a RFC 2445 duration, like "PT1H30M", "P1D" or "P2W".
+     *
+     * @param duration The duration string.
+     * @return The duration in milliseconds.
+     */
+    public static long parseDuration(String duration) {
+        String value = duration.trim().toUpperCase();
+        int sign = 1;
+        int i = 0;
+        if (value.startsWith("+") || value.startsWith("-")) {
+            sign = value.charAt(0) == '-' ? -1 : 1;
+            i++;
+        }
+        if (i >= value.length() || value.charAt(i) != 'P') {
+            throw new IllegalArgumentException("Malformed duration " + duration + ".");
+        }
+        i++;
+
+        long millis = 0;
+        long number = -1;
+        boolean time = false;
+        for (; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                number = (number < 0 ? 0 : number * 10) + (c - '0');
+                continue;
+            }
+            if (c == 'T' && number < 0) {
+                time = true;
+                continue;
+            }
+            if (number < 0) {
+                throw new IllegalArgumentException("Malformed duration " + duration + ".");
+            }
+            if (c == 'W' && !time) {
+                millis += TimeUnit.DAYS.toMillis(number * 7);
+            } else if (c == 'D' && !time) {
+                millis += TimeUnit.DAYS.toMillis(number);
+            } else if (c == 'H' && time) {
+                millis += TimeUnit.HOURS.toMillis(number);
+            } else if (c == 'M' && time) {
+                millis += TimeUnit.MINUTES.toMillis(number);
+            } else if (c == 'S' && time) {
+                millis += TimeUnit.SECONDS.toMillis(number);
+            } else {
+                throw new IllegalArgumentException("Malformed duration " + duration + ".");
+            }
+            number = -1;
+        }
+        if (number >= 0) {
+            throw new IllegalArgumentException("Malformed duration " + duration + ".");
+        }
+        return sign * millis;
     }
 
     /**
@@ -112,23 +238,15 @@ public class DateHelper {
     }
 
     /**
-     * Used for displaying the date in any section of the agenda view.
+     * Used for displaying the date in any section of the agenda view, read from the labels of the
+     * locale.
      *
      * @param calendar The date of the section.
      * @param locale   The locale used by the Sunrise calendar.
      * @return The formatted date without the year included.
      */
     public static String getYearLessLocalizedDate(Calendar calendar, Locale locale) {
-        SimpleDateFormat sdf = (SimpleDateFormat) SimpleDateFormat.getDateInstance(DateFormat.FULL, CalendarManager.getInstance().getLocale());
-        String pattern = sdf.toPattern();
-
-        String yearLessPattern = pattern.replaceAll("\\W?[Yy]+\\W?", "");
-        SimpleDateFormat yearLessSDF = new SimpleDateFormat(yearLessPattern, locale);
-        String yearLessDate = yearLessSDF.format(calendar.getTime()).toUpperCase();
-        if (yearLessDate.endsWith(",")) {
-            yearLessDate = yearLessDate.substring(0, yearLessDate.length() - 1);
-        }
-        return yearLessDate;
+        return DateLabels.getYearLessDate(toEpochDay(calendar), locale);
     }
 
     // endregion
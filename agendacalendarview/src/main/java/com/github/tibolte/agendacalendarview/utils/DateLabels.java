@@ -0,0 +1,254 @@
+package com.github.tibolte.agendacalendarview.utils;
+
+import com.github.tibolte.agendacalendarview.R;
+
+import android.content.Context;
+import android.util.LruCache;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Labels of the days and months shown by the calendar, formatted once per locale: the weekday
+ * names, the short and long month names, the day numbers and the year-less dates of the days.
+ * The views read them from here instead of creating and running formatters while they scroll.
+ * Instances are shared by locale and can be read from any thread.
+ */
+public final class DateLabels {
+
+    private static final int MAX_LOCALES = 4;
+    /**
+     * Year-less dates kept per locale, a few months of agenda headers
+     */
+    private static final int MAX_YEAR_LESS_DATES = 256;
+    /**
+     * Month labels with a year kept, a few years of weeks
+     */
+    private static final int MAX_MONTH_YEAR_LABELS = 48;
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final LruCache<Locale, DateLabels> sInstances = new LruCache<>(MAX_LOCALES);
+    /**
+     * Year-less dates only depend on the locale, shared by the instances and the DateHelper
+     */
+    private static final LruCache<Locale, YearLessDates> sYearLessDates = new LruCache<>(MAX_LOCALES);
+
+    private final Locale mLocale;
+    /**
+     * Weekday names by Calendar.DAY_OF_WEEK
+     */
+    private final String[] mWeekdayNames = new String[Calendar.SATURDAY + 1];
+    /**
+     * Month names by Calendar.MONTH
+     */
+    private final String[] mMonthShortNames = new String[12];
+    private final String[] mMonthNames = new String[12];
+    /**
+     * Upper case month names, shown over the weeks
+     */
+    private final String[] mMonthLabels = new String[12];
+    /**
+     * Day numbers by day of month
+     */
+    private final String[] mDayNumbers = new String[32];
+    /**
+     * Month labels followed by their year, by year * 12 + month
+     */
+    private final LruCache<Integer, String> mMonthYearLabels = new LruCache<>(MAX_MONTH_YEAR_LABELS);
+    private final YearLessDates mYearLessDates;
+    /**
+     * Full date format, read by the accessibility services, in UTC like the year-less dates
+     */
+    private final DateFormat mFullDateFormat;
+
+    // region Constructor
+
+    private DateLabels(Context context, Locale locale) {
+        mLocale = locale;
+        SimpleDateFormat weekdayFormat = new SimpleDateFormat(context.getString(R.string.day_name_format), locale);
+        SimpleDateFormat monthShortFormat = new SimpleDateFormat(context.getString(R.string.month_half_name_format), locale);
+        SimpleDateFormat monthFormat = new SimpleDateFormat(context.getString(R.string.month_name_format), locale);
+
+        Calendar cal = Calendar.getInstance(locale);
+        cal.clear();
+        // 2000-01-02 was a Sunday
+        for (int dayOfWeek = Calendar.SUNDAY; dayOfWeek <= Calendar.SATURDAY; dayOfWeek++) {
+            cal.set(2000, Calendar.JANUARY, 1 + dayOfWeek);
+            mWeekdayNames[dayOfWeek] = weekdayFormat.format(cal.getTime());
+        }
+        for (int month = Calendar.JANUARY; month <= Calendar.DECEMBER; month++) {
+            cal.set(2000, month, 1);
+            mMonthShortNames[month] = monthShortFormat.format(cal.getTime());
+            mMonthNames[month] = monthFormat.format(cal.getTime());
+            mMonthLabels[month] = mMonthNames[month].toUpperCase(locale);
+        }
+        for (int day = 0; day < mDayNumbers.length; day++) {
+            mDayNumbers[day] = Integer.toString(day);
+        }
+        mYearLessDates = getYearLessDates(locale);
+        mFullDateFormat = DateFormat.getDateInstance(DateFormat.FULL, locale);
+        mFullDateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    // endregion
+
+    // region Public methods
+
+    /**
+     * Get the labels of a locale, formatted with the formats of the library's resources the first
+     * time the locale is asked for.
+     */
+    public static DateLabels getInstance(Context context, Locale locale) {
+        synchronized (sInstances) {
+            DateLabels dateLabels = sInstances.get(locale);
+            if (dateLabels == null) {
+                dateLabels = new DateLabels(context.getApplicationContext(), locale);
+                sInstances.put(locale, dateLabels);
+            }
+            return dateLabels;
+        }
+    }
+
+    /**
+     * Format a day without its year, in upper case, like the headers of the agenda.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     * @param locale   The locale.
+     * @return The formatted date.
+     */
+    public static String getYearLessDate(int epochDay, Locale locale) {
+        return getYearLessDates(locale).get(epochDay);
+    }
+
+    public Locale getLocale() {
+        return mLocale;
+    }
+
+    /**
+     * @param dayOfWeek The day of the week, from Calendar.SUNDAY to Calendar.SATURDAY.
+     */
+    public String getWeekdayName(int dayOfWeek) {
+        return mWeekdayNames[dayOfWeek];
+    }
+
+    /**
+     * @param month The month, from Calendar.JANUARY to Calendar.DECEMBER.
+     */
+    public String getMonthShortName(int month) {
+        return mMonthShortNames[month];
+    }
+
+    /**
+     * @param month The month, from Calendar.JANUARY to Calendar.DECEMBER.
+     */
+    public String getMonthName(int month) {
+        return mMonthNames[month];
+    }
+
+    /**
+     * Get the upper case name of a month, shown over the weeks while they are dragged.
+     *
+     * @param year     The year, shown after the name if asked for.
+     * @param month    The month, from Calendar.JANUARY to Calendar.DECEMBER.
+     * @param withYear True to show the year.
+     */
+    public String getMonthLabel(int year, int month, boolean withYear) {
+        if (!withYear) {
+            return mMonthLabels[month];
+        }
+        int key = year * 12 + month;
+        String label = mMonthYearLabels.get(key);
+        if (label == null) {
+            label = mMonthLabels[month] + " " + year;
+            mMonthYearLabels.put(key, label);
+        }
+        return label;
+    }
+
+    /**
+     * @param dayOfMonth The day of the month, from 1 to 31.
+     */
+    public String getDayNumber(int dayOfMonth) {
+        return mDayNumbers[dayOfMonth];
+    }
+
+    /**
+     * Format a day without its year, in upper case, like the headers of the agenda.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     */
+    public String getYearLessDate(int epochDay) {
+        return mYearLessDates.get(epochDay);
+    }
+
+    /**
+     * Format a day with its weekday and year, as read to the user by the accessibility services.
+     *
+     * @param epochDay The number of days since 1970-01-01.
+     */
+    public String getFullDate(int epochDay) {
+        // the format is not thread safe
+        synchronized (mFullDateFormat) {
+            return mFullDateFormat.format(epochDay * DAY_MILLIS);
+        }
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private static YearLessDates getYearLessDates(Locale locale) {
+        synchronized (sYearLessDates) {
+            YearLessDates yearLessDates = sYearLessDates.get(locale);
+            if (yearLessDates == null) {
+                yearLessDates = new YearLessDates(locale);
+                sYearLessDates.put(locale, yearLessDates);
+            }
+            return yearLessDates;
+        }
+    }
+
+    // endregion
+
+    // region Class - YearLessDates
+
+    /**
+     * Year-less dates of a locale, formatted from the full date format without its year. The days
+     * are formatted in UTC from their epoch day, so the labels don't depend on the time zone.
+     */
+    private static class YearLessDates {
+
+        private final Locale mLocale;
+        private final SimpleDateFormat mFormat;
+        private final LruCache<Integer, String> mDates = new LruCache<>(MAX_YEAR_LESS_DATES);
+
+        YearLessDates(Locale locale) {
+            mLocale = locale;
+            String pattern = ((SimpleDateFormat) DateFormat.getDateInstance(DateFormat.FULL, locale)).toPattern();
+            mFormat = new SimpleDateFormat(pattern.replaceAll("\\W?[Yy]+\\W?", ""), locale);
+            mFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        }
+
+        String get(int epochDay) {
+            String date = mDates.get(epochDay);
+            if (date != null) {
+                return date;
+            }
+            // the format is not thread safe
+            synchronized (mFormat) {
+                date = mFormat.format(epochDay * DAY_MILLIS).toUpperCase(mLocale);
+            }
+            if (date.endsWith(",")) {
+                date = date.substring(0, date.length() - 1);
+            }
+            mDates.put(epochDay, date);
+            return date;
+        }
+    }
+
+    // endregion
+}
@@ -0,0 +1,231 @@
+package com.github.tibolte.agendacalendarview.utils;
+
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.models.RecurrenceRule;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Index of events bucketed by local epoch day.
+ * Every day of the indexed range points to a contiguous slice of one shared array, holding the
+ * events happening on that day in the order of the source list. Building it costs
+ * O(events + occurrences), a lookup is O(1). Recurring events are expanded for the indexed days
+ * only.
+ */
+public class DayEventIndex {
+
+    /**
+     * Returned when an event doesn't happen on a day.
+     */
+    public static final int NO_OCCURRENCE = Integer.MIN_VALUE;
+
+    /**
+     * Epoch day of the first bucket.
+     */
+    private final int mFirstDay;
+    /**
+     * Epoch day of the last bucket (inclusive).
+     */
+    private final int mLastDay;
+    /**
+     * Start offset in mEvents for each day, with one extra trailing entry, so the events of day
+     * (firstDay + i) are found between mOffsets[i] and mOffsets[i + 1].
+     */
+    private final int[] mOffsets;
+    /**
+     * Events of all the days, grouped by day.
+     */
+    private final CalendarEvent[] mEvents;
+    /**
+     * Epoch day on which each occurrence of mEvents starts, which is not the first day of the event
+     * for a recurring one.
+     */
+    private final int[] mStartDays;
+
+    // region Constructor
+
+    /**
+     * Builds the index for the given events, ignoring the days outside of the range.
+     *
+     * @param events   The source events.
+     * @param firstDay The first indexed epoch day.
+     * @param lastDay  The last indexed epoch day (inclusive).
+     * @param timeZone The time zone used to find the local days of the events.
+     */
+    public DayEventIndex(List<CalendarEvent> events, int firstDay, int lastDay, TimeZone timeZone) {
+        if (lastDay < firstDay) {
+            throw new IllegalArgumentException("lastDay must not be before firstDay.");
+        }
+        mFirstDay = firstDay;
+        mLastDay = lastDay;
+        mOffsets = new int[lastDay - firstDay + 2];
+
+        int eventCount = events.size();
+        int[] starts = new int[eventCount];
+        int[] ends = new int[eventCount];
+
+        // first pass, count the occurrences of each day
+        int total = 0;
+        for (int i = 0; i < eventCount; i++) {
+            CalendarEvent event = events.get(i);
+            int start = Math.max(getFirstDay(event, timeZone), firstDay);
+            int end = Math.min(getLastCoveredDay(event, timeZone), lastDay);
+            starts[i] = start;
+            ends[i] = end;
+            boolean recurring = event.getRecurrenceRule() != null;
+            for (int day = start; day <= end; day++) {
+                if (recurring && getOccurrenceStart(event, day, timeZone) == NO_OCCURRENCE) {
+                    continue;
+                }
+                mOffsets[day - firstDay + 1]++;
+                total++;
+            }
+        }
+        for (int i = 1; i < mOffsets.length; i++) {
+            mOffsets[i] += mOffsets[i - 1];
+        }
+
+        // second pass, fill the buckets keeping the order of the source list
+        mEvents = new CalendarEvent[total];
+        mStartDays = new int[total];
+        int[] cursors = new int[mOffsets.length - 1];
+        System.arraycopy(mOffsets, 0, cursors, 0, cursors.length);
+        for (int i = 0; i < eventCount; i++) {
+            CalendarEvent event = events.get(i);
+            boolean recurring = event.getRecurrenceRule() != null;
+            int eventFirstDay = getFirstDay(event, timeZone);
+            for (int day = starts[i]; day <= ends[i]; day++) {
+                int startDay = recurring ? getOccurrenceStart(event, day, timeZone) : eventFirstDay;
+                if (startDay == NO_OCCURRENCE) {
+                    continue;
+                }
+                mStartDays[cursors[day - firstDay]] = startDay;
+                mEvents[cursors[day - firstDay]++] = event;
+            }
+        }
+    }
+
+    // endregion
+
+    // region Public methods
+
+    public int getFirstDay() {
+        return mFirstDay;
+    }
+
+    public int getLastDay() {
+        return mLastDay;
+    }
+
+    /**
+     * @param epochDay The day to look at.
+     * @return The number of events happening on that day, 0 if the day is not indexed.
+     */
+    public int getEventCount(int epochDay) {
+        if (epochDay < mFirstDay || epochDay > mLastDay) {
+            return 0;
+        }
+        int i = epochDay - mFirstDay;
+        return mOffsets[i + 1] - mOffsets[i];
+    }
+
+    /**
+     * @param epochDay The day to look at.
+     * @param position The position of the event in that day, lower than getEventCount(epochDay).
+     * @return The event.
+     */
+    public CalendarEvent getEvent(int epochDay, int position) {
+        return mEvents[mOffsets[epochDay - mFirstDay] + position];
+    }
+
+    /**
+     * @param epochDay The day to look at.
+     * @param position The position of the event in that day, lower than getEventCount(epochDay).
+     * @return The epoch day on which this occurrence of the event starts.
+     */
+    public int getStartDay(int epochDay, int position) {
+        return mStartDays[mOffsets[epochDay - mFirstDay] + position];
+    }
+
+    /**
+     * Get the local day on which an event starts, the first occurrence for a recurring one.
+     *
+     * @param event    The event.
+     * @param timeZone The time zone used to find the local day.
+     * @return The epoch day of the event start.
+     */
+    public static int getFirstDay(CalendarEvent event, TimeZone timeZone) {
+        return DateHelper.toEpochDay(event.getStartTime().getTimeInMillis(), timeZone);
+    }
+
+    /**
+     * Get the last local day covered by an event, the first occurrence for a recurring one. An event
+     * ending exactly at midnight does not cover the day it ends on, an event without an end time
+     * only covers its first day.
+     *
+     * @param event    The event.
+     * @param timeZone The time zone used to find the local day.
+     * @return The epoch day of the event end, never before its first day.
+     */
+    public static int getLastDay(CalendarEvent event, TimeZone timeZone) {
+        int firstDay = getFirstDay(event, timeZone);
+        Calendar endTime = event.getEndTime();
+        if (endTime == null) {
+            return firstDay;
+        }
+        long endMillis = endTime.getTimeInMillis();
+        int lastDay = DateHelper.toEpochDay(endMillis, timeZone);
+        if (lastDay > firstDay && DateHelper.isStartOfDay(endMillis, timeZone)) {
+            lastDay--;
+        }
+        return Math.max(lastDay, firstDay);
+    }
+
+    /**
+     * Get a day after which an event doesn't happen anymore. It's the last day of the event, or
+     * for a recurring one a bound of the last day of its last occurrence.
+     *
+     * @param event    The event.
+     * @param timeZone The time zone used to find the local day.
+     * @return The epoch day, RecurrenceRule.NO_END for a recurrence without end.
+     */
+    public static int getLastCoveredDay(CalendarEvent event, TimeZone timeZone) {
+        int lastDay = getLastDay(event, timeZone);
+        RecurrenceRule rule = event.getRecurrenceRule();
+        if (rule == null) {
+            return lastDay;
+        }
+        int firstDay = getFirstDay(event, timeZone);
+        long bound = (long) rule.getLastStartBound(firstDay) + lastDay - firstDay;
+        return (int) Math.min(bound, RecurrenceRule.NO_END);
+    }
+
+    /**
+     * Find the occurrence of an event happening on a day.
+     *
+     * @param event    The event.
+     * @param epochDay The day to look at.
+     * @param timeZone The time zone used to find the local day.
+     * @return The epoch day on which the occurrence starts, NO_OCCURRENCE if the event doesn't
+     * happen on that day.
+     */
+    public static int getOccurrenceStart(CalendarEvent event, int epochDay, TimeZone timeZone) {
+        int firstDay = getFirstDay(event, timeZone);
+        int span = getLastDay(event, timeZone) - firstDay;
+        RecurrenceRule rule = event.getRecurrenceRule();
+        if (rule == null) {
+            return epochDay >= firstDay && epochDay <= firstDay + span ? firstDay : NO_OCCURRENCE;
+        }
+        // the latest occurrence started within the span of one occurrence
+        for (int start = epochDay; start >= epochDay - span && start >= firstDay; start--) {
+            if (rule.occursOn(firstDay, start)) {
+                return start;
+            }
+        }
+        return NO_OCCURRENCE;
+    }
+
+    // endregion
+}
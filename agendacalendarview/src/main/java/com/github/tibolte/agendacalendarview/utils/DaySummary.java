@@ -0,0 +1,137 @@
+package com.github.tibolte.agendacalendarview.utils;
+
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.models.RecurrenceRule;
+
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Summary of the events starting on each day, as shown by the calendar: the number of events and
+ * the colors of the first ones, for the indicators. Recurring events count on the day of each
+ * occurrence. Stored in primitive arrays by local epoch day, building it costs O(events + days),
+ * a lookup is O(1).
+ */
+public class DaySummary {
+
+    /**
+     * Number of indicator colors kept for each day.
+     */
+    public static final int MAX_COLORS = 3;
+
+    /**
+     * Epoch day of the first summarized day.
+     */
+    private final int mFirstDay;
+    /**
+     * Epoch day of the last summarized day (inclusive).
+     */
+    private final int mLastDay;
+    /**
+     * Number of events starting on each day.
+     */
+    private final int[] mCounts;
+    /**
+     * Colors of the first events of each day, MAX_COLORS entries per day.
+     */
+    private final int[] mColors;
+
+    // region Constructor
+
+    /**
+     * Builds the summary of the given events, placeholders and days outside of the range are ignored.
+     *
+     * @param events   The source events.
+     * @param firstDay The first summarized epoch day.
+     * @param lastDay  The last summarized epoch day (inclusive).
+     * @param timeZone The time zone used to find the local days of the events.
+     */
+    public DaySummary(List<CalendarEvent> events, int firstDay, int lastDay, TimeZone timeZone) {
+        mFirstDay = firstDay;
+        mLastDay = Math.max(lastDay, firstDay - 1);
+        int dayCount = mLastDay - mFirstDay + 1;
+        mCounts = new int[dayCount];
+        mColors = new int[dayCount * MAX_COLORS];
+
+        for (int i = 0; i < events.size(); i++) {
+            CalendarEvent event = events.get(i);
+            if (event.isPlaceholder()) {
+                continue;
+            }
+            int epochDay = DayEventIndex.getFirstDay(event, timeZone);
+            RecurrenceRule rule = event.getRecurrenceRule();
+            if (rule == null) {
+                if (epochDay >= mFirstDay && epochDay <= mLastDay) {
+                    addEvent(epochDay, event);
+                }
+                continue;
+            }
+            // every occurrence starting in the range
+            int last = Math.min(rule.getLastStartBound(epochDay), mLastDay);
+            for (int day = Math.max(epochDay, mFirstDay); day <= last; day++) {
+                if (rule.occursOn(epochDay, day)) {
+                    addEvent(day, event);
+                }
+            }
+        }
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private void addEvent(int epochDay, CalendarEvent event) {
+        int dayIndex = epochDay - mFirstDay;
+        if (mCounts[dayIndex] < MAX_COLORS) {
+            mColors[dayIndex * MAX_COLORS + mCounts[dayIndex]] = event.getColor();
+        }
+        mCounts[dayIndex]++;
+    }
+
+    // endregion
+
+    // region Public methods
+
+    /**
+     * @param epochDay The day to look at.
+     * @return The number of events starting on that day, 0 if the day is not summarized.
+     */
+    public int getEventCount(int epochDay) {
+        if (epochDay < mFirstDay || epochDay > mLastDay) {
+            return 0;
+        }
+        return mCounts[epochDay - mFirstDay];
+    }
+
+    /**
+     * @param epochDay The day to look at.
+     * @param position The position of the event in that day, lower than MAX_COLORS and than
+     *                 getEventCount(epochDay).
+     * @return The color of the event.
+     */
+    public int getColor(int epochDay, int position) {
+        return mColors[(epochDay - mFirstDay) * MAX_COLORS + position];
+    }
+
+    /**
+     * Check if a day is summarized the same way by another summary.
+     *
+     * @param other    The other summary.
+     * @param epochDay The day to compare.
+     * @return True if both have the same number of events and indicator colors on that day.
+     */
+    public boolean sameDay(DaySummary other, int epochDay) {
+        int count = getEventCount(epochDay);
+        if (count != other.getEventCount(epochDay)) {
+            return false;
+        }
+        for (int i = 0; i < Math.min(count, MAX_COLORS); i++) {
+            if (getColor(epochDay, i) != other.getColor(epochDay, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // endregion
+}
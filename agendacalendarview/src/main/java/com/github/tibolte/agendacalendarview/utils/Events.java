@@ -1,8 +1,10 @@
 package com.github.tibolte.agendacalendarview.utils;
 
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
 import com.github.tibolte.agendacalendarview.models.IDayItem;
 
 import java.util.Calendar;
+import java.util.List;
 
 /**
  * Events emitted by the bus provider.
@@ -40,4 +42,74 @@ public class Events {
 
     public static class ForecastFetched {
     }
+
+    /**
+     * Sent after an incremental update of the events held by the CalendarManager.
+     */
+    public static class EventsChanged {
+
+        /**
+         * The updated list of events instances, the ranges apply to this version.
+         */
+        private final List<CalendarEvent> mEvents;
+        /**
+         * Ranges of the agenda list which were replaced, in ascending order. Positions are given in
+         * the updated list, so the ranges can be applied one after another.
+         */
+        private final List<AgendaRange> mAgendaRanges;
+        /**
+         * Positions of the weeks whose days changed, in ascending order.
+         */
+        private final int[] mWeekPositions;
+
+        public EventsChanged(List<CalendarEvent> events, List<AgendaRange> agendaRanges, int[] weekPositions) {
+            this.mEvents = events;
+            this.mAgendaRanges = agendaRanges;
+            this.mWeekPositions = weekPositions;
+        }
+
+        public List<CalendarEvent> getEvents() {
+            return mEvents;
+        }
+
+        public List<AgendaRange> getAgendaRanges() {
+            return mAgendaRanges;
+        }
+
+        public int[] getWeekPositions() {
+            return mWeekPositions;
+        }
+
+        public boolean isEmpty() {
+            return mAgendaRanges.isEmpty();
+        }
+    }
+
+    /**
+     * A range of the agenda list replaced by an incremental update.
+     */
+    public static class AgendaRange {
+
+        private final int mPosition;
+        private final int mRemovedCount;
+        private final int mInsertedCount;
+
+        public AgendaRange(int position, int removedCount, int insertedCount) {
+            this.mPosition = position;
+            this.mRemovedCount = removedCount;
+            this.mInsertedCount = insertedCount;
+        }
+
+        public int getPosition() {
+            return mPosition;
+        }
+
+        public int getRemovedCount() {
+            return mRemovedCount;
+        }
+
+        public int getInsertedCount() {
+            return mInsertedCount;
+        }
+    }
 }
@@ -30,7 +30,7 @@ public class ListViewScrollTracker {
     // region Public methods
 
     /**
-     * Call from an AbsListView.OnScrollListener to calculate the incremental offset (change in
+     * Call from a RecyclerView.OnScrollListener to calculate the incremental offset (change in
      * scroll offset
      * since the last calculation).
      *
@@ -45,7 +45,7 @@ public class ListViewScrollTracker {
         // Store new positions
         mPositions = new SparseArray<>();
         for (int i = 0; i < visibleItemCount; i++) {
-            mPositions.put(firstVisiblePosition + i, mListView.getListChildAt(i).getTop());
+            mPositions.put(firstVisiblePosition + i, mListView.getChildAt(i).getTop());
         }
 
         if (previousPositions != null) {
@@ -65,7 +65,7 @@ public class ListViewScrollTracker {
     }
 
     /**
-     * Call from an AbsListView.OnScrollListener to calculate the scrollY (Here
+     * Call from a RecyclerView.OnScrollListener to calculate the scrollY (Here
      * we definite as the distance in pixels compared to the position representing the current
      * date).
      *
@@ -80,7 +80,7 @@ public class ListViewScrollTracker {
         }
 
         if (visibleItemCount > 0) {
-            View c = mListView.getListChildAt(0); // this is the first visible row
+            View c = mListView.getChildAt(0); // this is the first visible row
             int scrollY = -c.getTop();
             mListViewItemHeights.put(firstVisiblePosition, c.getMeasuredHeight());
 
@@ -0,0 +1,145 @@
+package com.github.tibolte.agendacalendarview.utils;
+
+import android.util.SparseArray;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayDeque;
+
+/**
+ * Inflates rows of the lists ahead of time, while the calendar is built, so their first scroll
+ * doesn't inflate on the main thread. Layouts known to be safe to inflate off the main thread are
+ * inflated on a low priority background thread of their own, so the diffs of the adapters don't
+ * wait for them, the others on the main thread, one row per message. The inflated rows are taken
+ * back by the adapters, only on the main thread.
+ */
+public class ViewPrefetcher {
+
+    private final ViewGroup mParent;
+    private final LayoutInflater mInflater;
+    /**
+     * Inflater used on the background thread, LayoutInflater instances are not thread safe
+     */
+    private final LayoutInflater mBackgroundInflater;
+    /**
+     * Inflated rows by layout
+     */
+    private final SparseArray<ArrayDeque<View>> mViews = new SparseArray<>();
+    private volatile boolean mCancelled;
+
+    // region Constructor
+
+    /**
+     * @param parent The list the rows are inflated for, giving them their layout params.
+     */
+    public ViewPrefetcher(ViewGroup parent) {
+        mParent = parent;
+        mInflater = LayoutInflater.from(parent.getContext());
+        mBackgroundInflater = mInflater.cloneInContext(parent.getContext());
+    }
+
+    // endregion
+
+    // region Public methods
+
+    /**
+     * Inflate rows of a layout, the rows become available later.
+     *
+     * @param layout The layout.
+     * @param count  The number of rows.
+     * @param async  True if the layout can be inflated on a background thread, its views must
+     *               not need the main thread in their constructors.
+     */
+    public void prefetch(final int layout, int count, boolean async) {
+        for (int i = 0; i < count; i++) {
+            if (async) {
+                BackgroundExecutor.prefetch(() -> {
+                    if (mCancelled) {
+                        return;
+                    }
+                    View view;
+                    try {
+                        view = mBackgroundInflater.inflate(layout, mParent, false);
+                    } catch (RuntimeException e) {
+                        // inflated on the main thread instead
+                        view = null;
+                    }
+                    final View inflated = view;
+                    BackgroundExecutor.post(() -> add(layout, inflated != null ? inflated : inflate(layout)));
+                });
+            } else {
+                BackgroundExecutor.post(() -> add(layout, inflate(layout)));
+            }
+        }
+    }
+
+    /**
+     * Take an inflated row of a layout.
+     *
+     * @return The row, null if none is ready.
+     */
+    public View obtain(int layout) {
+        ArrayDeque<View> views = mViews.get(layout);
+        return views == null ? null : views.poll();
+    }
+
+    /**
+     * @return The number of rows of a layout ready to be taken.
+     */
+    public int getCount(int layout) {
+        ArrayDeque<View> views = mViews.get(layout);
+        return views == null ? 0 : views.size();
+    }
+
+    /**
+     * Put view holders of the inflated rows of a layout in the pool of a list, its adapter must
+     * take these rows when creating view holders of that type.
+     *
+     * @param list     The list.
+     * @param viewType The view type of the layout.
+     * @param layout   The layout.
+     * @param max      The number of view holders to reach in the pool.
+     */
+    public void seed(RecyclerView list, int viewType, int layout, int max) {
+        RecyclerView.RecycledViewPool pool = list.getRecycledViewPool();
+        while (getCount(layout) > 0 && pool.getRecycledViewCount(viewType) < max) {
+            pool.putRecycledView(list.getAdapter().createViewHolder(list, viewType));
+        }
+    }
+
+    /**
+     * Drop the inflated rows, and the rows still inflating once they are done.
+     */
+    public void cancel() {
+        mCancelled = true;
+        mViews.clear();
+    }
+
+    // endregion
+
+    // region Private methods
+
+    private View inflate(int layout) {
+        if (mCancelled) {
+            return null;
+        }
+        return mInflater.inflate(layout, mParent, false);
+    }
+
+    private void add(int layout, View view) {
+        if (mCancelled || view == null) {
+            return;
+        }
+        ArrayDeque<View> views = mViews.get(layout);
+        if (views == null) {
+            views = new ArrayDeque<>();
+            mViews.put(layout, views);
+        }
+        views.add(view);
+    }
+
+    // endregion
+}
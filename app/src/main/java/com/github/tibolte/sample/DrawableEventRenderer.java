@@ -1,46 +1,49 @@
 package com.github.tibolte.sample;
 
+import android.content.res.Resources;
 import android.view.View;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
-import com.github.tibolte.agendacalendarview.render.EventRenderer;
+import com.github.tibolte.agendacalendarview.models.CalendarEvent;
+import com.github.tibolte.agendacalendarview.render.HolderEventRenderer;
 
-public class DrawableEventRenderer extends EventRenderer<DrawableCalendarEvent> {
+import java.util.List;
 
-    // region Class - EventRenderer
+public class DrawableEventRenderer extends HolderEventRenderer<DrawableCalendarEvent, DrawableEventRenderer.ViewHolder> {
 
-    @Override
-    public void render(View view, DrawableCalendarEvent event) {
-        ImageView imageView = (ImageView) view.findViewById(R.id.view_agenda_event_image);
-        TextView txtTitle = (TextView) view.findViewById(com.github.tibolte.agendacalendarview.R.id.view_agenda_event_title);
-        TextView txtLocation = (TextView) view.findViewById(com.github.tibolte.agendacalendarview.R.id.view_agenda_event_location);
-        LinearLayout descriptionContainer = (LinearLayout) view.findViewById(com.github.tibolte.agendacalendarview.R.id.view_agenda_event_description_container);
-        LinearLayout locationContainer = (LinearLayout) view.findViewById(com.github.tibolte.agendacalendarview.R.id.view_agenda_event_location_container);
+    // region Class - HolderEventRenderer
 
-        descriptionContainer.setVisibility(View.VISIBLE);
+    @Override
+    public ViewHolder onCreate(View view) {
+        return new ViewHolder(view);
+    }
 
-        imageView.setImageDrawable(view.getContext().getResources().getDrawable(event.getDrawableId()));
+    @Override
+    public void onBind(ViewHolder holder, DrawableCalendarEvent event, CalendarEvent occurrence, List<Object> payloads) {
+        holder.mDescriptionContainer.setVisibility(View.VISIBLE);
 
-        txtTitle.setTextColor(view.getResources().getColor(android.R.color.black));
+        if (event.getDrawableId() != holder.mDrawableId) {
+            holder.mDrawableId = event.getDrawableId();
+            holder.mImageView.setImageResource(event.getDrawableId());
+        }
 
-        txtTitle.setText(event.getTitle());
-        txtLocation.setText(event.getLocation());
+        holder.mTxtTitle.setText(event.getTitle());
         if (event.getLocation().length() > 0) {
-            locationContainer.setVisibility(View.VISIBLE);
-            txtLocation.setText(event.getLocation());
+            holder.mLocationContainer.setVisibility(View.VISIBLE);
+            holder.mTxtLocation.setText(event.getLocation());
         } else {
-            locationContainer.setVisibility(View.GONE);
+            holder.mLocationContainer.setVisibility(View.GONE);
         }
 
-        if (event.getTitle().equals(view.getResources().getString(com.github.tibolte.agendacalendarview.R.string.agenda_event_no_events))) {
-            txtTitle.setTextColor(view.getResources().getColor(android.R.color.black));
+        if (event.getTitle().equals(holder.mNoEventsTitle)) {
+            holder.mTxtTitle.setTextColor(holder.mNoEventsTextColor);
         } else {
-            txtTitle.setTextColor(view.getResources().getColor(com.github.tibolte.agendacalendarview.R.color.theme_text_icons));
+            holder.mTxtTitle.setTextColor(holder.mTextColor);
         }
-        descriptionContainer.setBackgroundColor(event.getColor());
-        txtLocation.setTextColor(view.getResources().getColor(com.github.tibolte.agendacalendarview.R.color.theme_text_icons));
+        holder.mDescriptionContainer.setBackgroundColor(event.getColor());
+        holder.mTxtLocation.setTextColor(holder.mTextColor);
     }
 
     @Override
@@ -54,4 +57,36 @@ public class DrawableEventRenderer extends EventRenderer<DrawableCalendarEvent>
     }
 
     // endregion
+
+    // region Class - ViewHolder
+
+    static class ViewHolder {
+        private final ImageView mImageView;
+        private final TextView mTxtTitle;
+        private final TextView mTxtLocation;
+        private final LinearLayout mDescriptionContainer;
+        private final LinearLayout mLocationContainer;
+        private final String mNoEventsTitle;
+        private final int mNoEventsTextColor;
+        private final int mTextColor;
+        /**
+         * Drawable shown by the image, 0 if none yet
+         */
+        private int mDrawableId;
+
+        ViewHolder(View view) {
+            mImageView = (ImageView) view.findViewById(R.id.view_agenda_event_image);
+            mTxtTitle = (TextView) view.findViewById(com.github.tibolte.agendacalendarview.R.id.view_agenda_event_title);
+            mTxtLocation = (TextView) view.findViewById(com.github.tibolte.agendacalendarview.R.id.view_agenda_event_location);
+            mDescriptionContainer = (LinearLayout) view.findViewById(com.github.tibolte.agendacalendarview.R.id.view_agenda_event_description_container);
+            mLocationContainer = (LinearLayout) view.findViewById(com.github.tibolte.agendacalendarview.R.id.view_agenda_event_location_container);
+
+            Resources resources = view.getResources();
+            mNoEventsTitle = resources.getString(com.github.tibolte.agendacalendarview.R.string.agenda_event_no_events);
+            mNoEventsTextColor = resources.getColor(android.R.color.black);
+            mTextColor = resources.getColor(com.github.tibolte.agendacalendarview.R.color.theme_text_icons);
+        }
+    }
+
+    // endregion
 }
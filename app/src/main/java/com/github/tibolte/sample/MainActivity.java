@@ -9,14 +9,10 @@ import androidx.appcompat.widget.Toolbar;
 import androidx.core.content.ContextCompat;
 
 import com.github.tibolte.agendacalendarview.AgendaCalendarView;
-import com.github.tibolte.agendacalendarview.CalendarManager;
 import com.github.tibolte.agendacalendarview.CalendarPickerController;
 import com.github.tibolte.agendacalendarview.models.BaseCalendarEvent;
 import com.github.tibolte.agendacalendarview.models.CalendarEvent;
-import com.github.tibolte.agendacalendarview.models.DayItem;
 import com.github.tibolte.agendacalendarview.models.IDayItem;
-import com.github.tibolte.agendacalendarview.models.IWeekItem;
-import com.github.tibolte.agendacalendarview.models.WeekItem;
 
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -61,20 +57,10 @@ public class MainActivity extends AppCompatActivity implements CalendarPickerCon
         mAgendaCalendarView.init(eventList, minDate, maxDate, Locale.getDefault(), this);
         mAgendaCalendarView.addEventRenderer(new DrawableEventRenderer());
         */
-        //Async way
-
-
-        //////// This can be done once in another thread
-        CalendarManager calendarManager = CalendarManager.getInstance(getApplicationContext());
-        calendarManager.buildCal(minDate, maxDate, Locale.getDefault(), new DayItem(), new WeekItem());
-        calendarManager.loadEvents(eventList, new BaseCalendarEvent());
-        ////////
-
-        List<CalendarEvent> readyEvents = calendarManager.getEvents();
-        List<IDayItem> readyDays = calendarManager.getDays();
-        List<IWeekItem> readyWeeks = calendarManager.getWeeks();
-        mAgendaCalendarView.init(Locale.getDefault(), readyWeeks,readyDays,readyEvents,this, new DrawableEventRenderer());
-        mAgendaCalendarView.getAgendaView().getAgendaListView().setOnScrollListener(mAgendaCalendarView.agendaScrollListener);
+        //Async way, the calendar is built on a background thread, rows are inflated meanwhile
+        mAgendaCalendarView.setPrefetchedRows(10, 8);
+        mAgendaCalendarView.initAsync(eventList, minDate, maxDate, Locale.getDefault(), this, new DrawableEventRenderer());
+        mAgendaCalendarView.getAgendaView().getAgendaListView().addOnScrollListener(mAgendaCalendarView.agendaScrollListener);
     }
 
     // endregion